@@ -10,4 +10,9 @@ interface MockKAgentFactory {
     val constructorProxyMaker: MockKConstructorProxyMaker
 
     fun init(logFactory: MockKAgentLogFactory)
+
+    /**
+     * Runs [block] applying the class transformations requested by mocks created in it together at its end.
+     */
+    fun <T> batchTransformations(block: () -> T): T = block()
 }
@@ -2,4 +2,10 @@
 
 interface InlineInstrumentation {
     fun execute(request: TransformationRequest): () -> Unit
+
+    /**
+     * Runs [block] deferring the class transformations it requests to its end,
+     * so they are applied together.
+     */
+    fun <T> batch(block: () -> T): T = block()
 }
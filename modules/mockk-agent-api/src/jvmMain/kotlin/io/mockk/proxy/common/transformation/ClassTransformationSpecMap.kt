@@ -7,16 +7,144 @@
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 
-class ClassTransformationSpecMap {
+/**
+ * Counts transformation requests per class and tells which classes need to be retransformed.
+ *
+ * In [sticky] mode a class keeps its advice after the last request of a kind is cancelled,
+ * so mocking it again in a later test needs no retransformation.
+ * Cancelled mocks have no handler anymore, so the advice just lets calls through.
+ * [restoreAll] retransforms such classes back.
+ *
+ * Within [batch] the classes to retransform are collected and retransformed together at its end.
+ *
+ * Requests lock the stripes of their classes, always in ascending order,
+ * so requests for unrelated classes run in parallel and overlapping ones are serialized.
+ * An overlapping request finds the class already transformed and doesn't retransform it again.
+ */
+class ClassTransformationSpecMap(
+    private val sticky: Boolean = false,
+) {
     private val classSpecs = WeakHashMap<Class<*>, ClassTransformationSpec>()
-    private val transformationLock = ReentrantLock(true)
+
+    // Transforms present in the bytecode of a class, which may outlive the requests in sticky mode
+    private val appliedSpecs = WeakHashMap<Class<*>, ClassTransformationSpec>()
+    private val transformationLocks = Array(STRIPES) { ReentrantLock(true) }
     private val specLock = ReentrantLock()
 
+    private val currentBatch = ThreadLocal<Batch>()
+
     fun applyTransformation(
         request: TransformationRequest,
         retransformClasses: (TransformationRequest) -> Unit,
-    ) = transformationLock.withLock {
-        val result = mutableListOf<Class<*>>()
+    ) {
+        val stripes = stripesOf(request.classes)
+
+        val batch = currentBatch.get()
+        if (batch != null) {
+            batch.lock(stripes)
+            batch.remember(request.classes)
+            batch.classes.addAll(updateSpecs(request))
+            retransformClasses(request.copy(classes = emptySet()))
+            return
+        }
+
+        withLocks(stripes) {
+            retransformClasses(request.copy(classes = updateSpecs(request)))
+        }
+    }
+
+    /**
+     * Runs [block] and retransforms the classes requested by transformations inside it in one call at its end.
+     *
+     * The batch keeps the stripes of these classes locked until then,
+     * so other threads requesting transformations of them wait until the batch ends.
+     * If a stripe can't be taken in order, the classes collected so far are retransformed
+     * and their stripes released first, which keeps batches on different threads from deadlocking.
+     * The stripes of the current request are then taken again in order and kept until the batch ends.
+     *
+     * If [retransformClasses] throws, the specs of the classes requested since the previous retransform
+     * are restored to what they were before these requests and the exception is rethrown.
+     */
+    fun <T> batch(
+        retransformClasses: (Set<Class<*>>) -> Unit,
+        block: () -> T,
+    ): T {
+        if (currentBatch.get() != null) {
+            return block()
+        }
+
+        val batch = Batch(retransformClasses)
+        currentBatch.set(batch)
+        try {
+            return block()
+        } finally {
+            currentBatch.remove()
+            batch.flush()
+        }
+    }
+
+    /**
+     * Drops the transforms kept in sticky mode for classes that have no requests left.
+     * Transforms still requested stay in place.
+     */
+    fun restoreAll(retransformClasses: (Set<Class<*>>) -> Unit) {
+        currentBatch.get()?.flush()
+
+        withLocks(transformationLocks.indices.toList()) {
+            val result = mutableSetOf<Class<*>>()
+
+            specLock.withLock {
+                for ((cls, applied) in appliedSpecs.entries.toList()) {
+                    val spec = classSpecs[cls] ?: ClassTransformationSpec(cls)
+                    if (applied sameTransforms spec) {
+                        continue
+                    }
+                    if (spec.shouldDoSomething) {
+                        appliedSpecs[cls] = spec.mergedWith(spec)
+                    } else {
+                        appliedSpecs.remove(cls)
+                    }
+                    result.add(cls)
+                }
+            }
+
+            if (result.isNotEmpty()) {
+                retransformClasses(result)
+            }
+        }
+    }
+
+    fun shouldTransform(clazz: Class<*>?) =
+        specLock.withLock {
+            if (sticky) {
+                appliedSpecs[clazz]?.shouldDoSomething == true
+            } else {
+                classSpecs[clazz] != null
+            }
+        }
+
+    operator fun get(clazz: Class<*>?) =
+        specLock.withLock {
+            if (sticky) {
+                appliedSpecs[clazz]
+                    ?.takeIf { it.shouldDoSomething }
+            } else {
+                classSpecs[clazz]
+                    ?.apply {
+                        if (!shouldDoSomething) {
+                            classSpecs.remove(clazz)
+                        }
+                    }
+            }
+        }
+
+    fun transformationMap(request: TransformationRequest): Map<String, String> =
+        specLock.withLock {
+            request.classes.associate { it.simpleName to classSpecs[it].toString() }
+        }
+
+    private fun updateSpecs(request: TransformationRequest): Set<Class<*>> {
+        val result = mutableSetOf<Class<*>>()
 
         specLock.withLock {
             for (cls in request.classes) {
@@ -33,34 +161,146 @@ fun applyTransformation(
                         CONSTRUCTOR -> spec.copy(constructorIntercept = spec.constructorIntercept + diff)
                     }
 
-                classSpecs[cls] = newSpec
+                if (sticky) {
+                    if (newSpec.shouldDoSomething) {
+                        classSpecs[cls] = newSpec
+                    } else {
+                        classSpecs.remove(cls)
+                    }
 
-                if (!(spec sameTransforms newSpec)) {
-                    result.add(cls)
+                    val applied = appliedSpecs[cls] ?: ClassTransformationSpec(cls)
+                    val merged = applied.mergedWith(newSpec)
+                    if (!(applied sameTransforms merged)) {
+                        appliedSpecs[cls] = merged
+                        result.add(cls)
+                    }
+                } else {
+                    classSpecs[cls] = newSpec
+
+                    if (!(spec sameTransforms newSpec)) {
+                        result.add(cls)
+                    }
                 }
             }
         }
 
-        retransformClasses(request.copy(classes = result.toSet()))
+        return result
     }
 
-    fun shouldTransform(clazz: Class<*>?) =
-        specLock.withLock {
-            classSpecs[clazz] != null
+    private fun stripesOf(classes: Set<Class<*>>): List<Int> =
+        classes
+            .map { System.identityHashCode(it) and (STRIPES - 1) }
+            .distinct()
+            .sorted()
+
+    private inline fun <T> withLocks(
+        stripes: List<Int>,
+        block: () -> T,
+    ): T {
+        var locked = 0
+        try {
+            for (stripe in stripes) {
+                transformationLocks[stripe].lock()
+                locked++
+            }
+            return block()
+        } finally {
+            for (idx in locked - 1 downTo 0) {
+                transformationLocks[stripes[idx]].unlock()
+            }
         }
+    }
 
-    operator fun get(clazz: Class<*>?) =
-        specLock.withLock {
-            classSpecs[clazz]
-                ?.apply {
-                    if (!shouldDoSomething) {
-                        classSpecs.remove(clazz)
+    private inner class Batch(
+        private val retransformClasses: (Set<Class<*>>) -> Unit,
+    ) {
+        private val heldStripes = sortedSetOf<Int>()
+        val classes = mutableSetOf<Class<*>>()
+
+        // Specs from before the first request of each class since the last retransform
+        private val previousSpecs = mutableMapOf<Class<*>, Pair<ClassTransformationSpec?, ClassTransformationSpec?>>()
+
+        fun remember(requested: Set<Class<*>>) {
+            specLock.withLock {
+                for (cls in requested) {
+                    if (cls !in previousSpecs) {
+                        previousSpecs[cls] = Pair(classSpecs[cls], appliedSpecs[cls])
                     }
                 }
+            }
         }
 
-    fun transformationMap(request: TransformationRequest): Map<String, String> =
+        fun lock(stripes: List<Int>) {
+            val needed = stripes.filter { it !in heldStripes }
+            if (needed.isEmpty()) {
+                return
+            }
+
+            if (heldStripes.isEmpty() || needed.first() > heldStripes.last()) {
+                lockInOrder(needed)
+                return
+            }
+
+            val acquired = needed.filter { transformationLocks[it].tryLock() }
+            if (acquired.size == needed.size) {
+                heldStripes.addAll(acquired)
+                return
+            }
+
+            acquired.forEach { transformationLocks[it].unlock() }
+            flush()
+            // flush released all stripes, including those of this request taken before
+            lockInOrder(stripes)
+        }
+
+        private fun lockInOrder(stripes: List<Int>) {
+            for (stripe in stripes) {
+                transformationLocks[stripe].lock()
+                heldStripes.add(stripe)
+            }
+        }
+
+        fun flush() {
+            val toRetransform = classes.toSet()
+            val toRestore = previousSpecs.toMap()
+            classes.clear()
+            previousSpecs.clear()
+            try {
+                // also called when no class changed, so the caller knows these requests are done
+                if (toRestore.isNotEmpty()) {
+                    retransformClasses(toRetransform)
+                }
+            } catch (ex: Exception) {
+                restore(toRestore)
+                throw ex
+            } finally {
+                heldStripes.descendingSet().forEach { transformationLocks[it].unlock() }
+                heldStripes.clear()
+            }
+        }
+    }
+
+    private fun restore(specs: Map<Class<*>, Pair<ClassTransformationSpec?, ClassTransformationSpec?>>) {
         specLock.withLock {
-            request.classes.associate { it.simpleName to classSpecs[it].toString() }
+            for ((cls, previous) in specs) {
+                val (spec, applied) = previous
+                if (spec != null) classSpecs[cls] = spec else classSpecs.remove(cls)
+                if (applied != null) appliedSpecs[cls] = applied else appliedSpecs.remove(cls)
+            }
         }
+    }
+
+    // One count per kind of transform present in either spec
+    private fun ClassTransformationSpec.mergedWith(other: ClassTransformationSpec) =
+        ClassTransformationSpec(
+            cls,
+            simpleIntercept = if (shouldDoSimpleIntercept || other.shouldDoSimpleIntercept) 1 else 0,
+            staticIntercept = if (shouldDoStaticIntercept || other.shouldDoStaticIntercept) 1 else 0,
+            constructorIntercept = if (shouldDoConstructorIntercept || other.shouldDoConstructorIntercept) 1 else 0,
+        )
+
+    private companion object {
+        // power of two, so a stripe is picked by masking the identity hash
+        const val STRIPES = 64
+    }
 }
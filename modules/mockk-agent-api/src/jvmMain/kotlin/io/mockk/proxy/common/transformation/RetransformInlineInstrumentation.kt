@@ -2,14 +2,23 @@
 
 import io.mockk.proxy.MockKAgentLogger
 import java.lang.instrument.UnmodifiableClassException
+import java.util.concurrent.atomic.AtomicBoolean
 
 abstract class RetransformInlineInstrumentation(
     protected val log: MockKAgentLogger,
     private val specMap: ClassTransformationSpecMap,
 ) : InlineInstrumentation {
+    // Requests of the current batch not retransformed yet, marked when they are rolled back
+    private val pendingRequests = ThreadLocal<MutableList<AtomicBoolean>>()
+
     protected abstract fun retransform(classesToTransform: Collection<Class<*>>)
 
     override fun execute(request: TransformationRequest): () -> Unit {
+        val pending = pendingRequests.get()
+        if (pending != null) {
+            return executeBatched(request, pending)
+        }
+
         var cancellation: (() -> Unit)? = null
         try {
             specMap.applyTransformation(request) {
@@ -26,6 +35,71 @@ override fun execute(request: TransformationRequest): () -> Unit {
         return cancellation ?: {}
     }
 
+    private fun executeBatched(
+        request: TransformationRequest,
+        pending: MutableList<AtomicBoolean>,
+    ): () -> Unit {
+        // throws if retransforming the classes collected so far fails, which fails the batch
+        specMap.applyTransformation(request) {}
+
+        val rolledBack = AtomicBoolean()
+        pending.add(rolledBack)
+        return {
+            if (rolledBack.compareAndSet(false, true)) {
+                doCancel(request)
+            }
+        }
+    }
+
+    /**
+     * If retransforming the batched classes fails, the requests are rolled back
+     * and the exception is thrown from the batch, as the mocks created in it wouldn't work.
+     */
+    override fun <T> batch(block: () -> T): T {
+        if (pendingRequests.get() != null) {
+            return block()
+        }
+
+        val pending = mutableListOf<AtomicBoolean>()
+        pendingRequests.set(pending)
+        try {
+            return specMap.batch(
+                {
+                    try {
+                        if (it.isNotEmpty()) {
+                            log.trace("Retransforming batched classes $it")
+                            retransform(it)
+                        }
+                    } catch (ex: java.lang.Exception) {
+                        log.warn(ex, "Failed to transform classes $it")
+                        // the spec map restores the counts, so cancelling these requests has nothing left to do
+                        pending.forEach { rolledBack -> rolledBack.set(true) }
+                        throw ex
+                    } finally {
+                        pending.clear()
+                    }
+                },
+                block,
+            )
+        } finally {
+            pendingRequests.remove()
+        }
+    }
+
+    /**
+     * Restores the original bytecode of classes that kept their advice after their mocks were cancelled.
+     */
+    fun restoreAll() {
+        try {
+            specMap.restoreAll {
+                log.trace("Restoring classes $it")
+                retransform(it)
+            }
+        } catch (ex: UnmodifiableClassException) {
+            log.warn(ex, "Failed to restore classes")
+        }
+    }
+
     private fun doCancel(request: TransformationRequest) {
         try {
             specMap.applyTransformation(
@@ -0,0 +1,241 @@
+package io.mockk.proxy.common.transformation
+
+import io.mockk.proxy.common.transformation.TransformationType.SIMPLE
+import io.mockk.proxy.common.transformation.TransformationType.STATIC
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+class ClassTransformationSpecMapTest {
+    private val simple = TransformationRequest(setOf(Target::class.java), SIMPLE)
+    private val static = TransformationRequest(setOf(Target::class.java), STATIC)
+
+    @Test
+    fun `retransforms back when last request is cancelled`() {
+        val specMap = ClassTransformationSpecMap()
+
+        assertEquals(setOf(Target::class.java), specMap.retransformed(simple))
+        assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple))
+        assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple.reverse()))
+        assertEquals(setOf(Target::class.java), specMap.retransformed(simple.reverse()))
+        assertFalse(specMap.isTransformed(Target::class.java))
+    }
+
+    @Test
+    fun `sticky mode keeps transforms of cancelled requests`() {
+        val specMap = ClassTransformationSpecMap(sticky = true)
+
+        assertEquals(setOf(Target::class.java), specMap.retransformed(simple))
+        assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple.reverse()))
+        assertTrue(specMap[Target::class.java]!!.shouldDoSimpleIntercept)
+
+        assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple))
+        assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple.reverse()))
+    }
+
+    @Test
+    fun `sticky mode keeps previous transforms when adding a new kind`() {
+        val specMap = ClassTransformationSpecMap(sticky = true)
+        specMap.retransformed(simple)
+        specMap.retransformed(simple.reverse())
+
+        assertEquals(setOf(Target::class.java), specMap.retransformed(static))
+
+        val spec = specMap[Target::class.java]!!
+        assertTrue(spec.shouldDoSimpleIntercept)
+        assertTrue(spec.shouldDoStaticIntercept)
+    }
+
+    @Test
+    fun `restoreAll drops only transforms without requests`() {
+        val specMap = ClassTransformationSpecMap(sticky = true)
+        specMap.retransformed(simple)
+        specMap.retransformed(simple.reverse())
+        specMap.retransformed(static)
+
+        assertEquals(setOf(Target::class.java), specMap.restored())
+
+        val spec = specMap[Target::class.java]!!
+        assertFalse(spec.shouldDoSimpleIntercept)
+        assertTrue(spec.shouldDoStaticIntercept)
+
+        specMap.retransformed(static.reverse())
+        assertEquals(setOf(Target::class.java), specMap.restored())
+        assertNull(specMap[Target::class.java])
+        assertEquals(emptySet<Class<*>>(), specMap.restored())
+    }
+
+    @Test
+    fun `batch retransforms classes of all requests together at its end`() {
+        val specMap = ClassTransformationSpecMap()
+        val other = TransformationRequest(setOf(Other::class.java), SIMPLE)
+        var batched = emptySet<Class<*>>()
+
+        specMap.batch({ batched = it }) {
+            assertEquals(emptySet<Class<*>>(), specMap.retransformed(simple))
+            assertEquals(emptySet<Class<*>>(), specMap.retransformed(other))
+            assertEquals(emptySet<Class<*>>(), batched)
+        }
+
+        assertEquals(setOf(Target::class.java, Other::class.java), batched)
+        assertTrue(specMap[Target::class.java]!!.shouldDoSimpleIntercept)
+    }
+
+    @Test
+    fun `request for a class in another stripe doesn't wait for a batch`() {
+        val specMap = ClassTransformationSpecMap()
+        val (batched, other) = classesInDifferentStripes()
+        val inBatch = CountDownLatch(1)
+        val otherDone = CountDownLatch(1)
+
+        val batchThread =
+            thread {
+                specMap.batch({}) {
+                    specMap.retransformed(TransformationRequest(setOf(batched), SIMPLE))
+                    inBatch.countDown()
+                    otherDone.await(10, TimeUnit.SECONDS)
+                }
+            }
+
+        inBatch.await()
+        assertEquals(setOf(other), specMap.retransformed(TransformationRequest(setOf(other), SIMPLE)))
+        otherDone.countDown()
+        batchThread.join()
+    }
+
+    @Test
+    fun `batches taking classes in opposite order don't deadlock`() {
+        val specMap = ClassTransformationSpecMap()
+        val (first, second) = classesInDifferentStripes()
+        val barrier = CyclicBarrier(2)
+        val retransformed = Collections.synchronizedList(mutableListOf<Class<*>>())
+
+        val threads =
+            listOf(first to second, second to first).map { (a, b) ->
+                thread {
+                    specMap.batch({ retransformed.addAll(it) }) {
+                        specMap.retransformed(TransformationRequest(setOf(a), SIMPLE))
+                        barrier.await(10, TimeUnit.SECONDS)
+                        specMap.retransformed(TransformationRequest(setOf(b), SIMPLE))
+                    }
+                }
+            }
+        threads.forEach { it.join(10_000) }
+
+        assertTrue(threads.none { it.isAlive })
+        assertEquals(setOf(first, second), retransformed.toSet())
+        assertEquals(2, specMap[first]!!.simpleIntercept)
+        assertEquals(2, specMap[second]!!.simpleIntercept)
+    }
+
+    @Test
+    fun `batch keeps classes of request locked after retransforming early`() {
+        val specMap = ClassTransformationSpecMap()
+        val (low, high) = classesInDifferentStripes().toList().sortedBy { stripe(it) }
+        val lowLocked = CountDownLatch(1)
+        val flushed = CountDownLatch(1)
+        val requested = CountDownLatch(1)
+        val checked = CountDownLatch(1)
+
+        val lowThread =
+            thread {
+                specMap.applyTransformation(TransformationRequest(setOf(low), SIMPLE)) {
+                    lowLocked.countDown()
+                    flushed.await(10, TimeUnit.SECONDS)
+                }
+            }
+        lowLocked.await()
+
+        val batchThread =
+            thread {
+                specMap.batch({ if (high in it) flushed.countDown() }) {
+                    specMap.retransformed(TransformationRequest(setOf(high), SIMPLE))
+                    // the low stripe is busy and comes before the held one, so the batch retransforms early
+                    specMap.retransformed(TransformationRequest(setOf(low, high), SIMPLE))
+                    requested.countDown()
+                    checked.await(10, TimeUnit.SECONDS)
+                }
+            }
+        requested.await()
+
+        val highDone = CountDownLatch(1)
+        val highThread =
+            thread {
+                specMap.applyTransformation(TransformationRequest(setOf(high), SIMPLE)) { highDone.countDown() }
+            }
+
+        assertFalse(highDone.await(200, TimeUnit.MILLISECONDS))
+        checked.countDown()
+        assertTrue(highDone.await(10, TimeUnit.SECONDS))
+        listOf(lowThread, batchThread, highThread).forEach { it.join() }
+        assertEquals(3, specMap[high]!!.simpleIntercept)
+    }
+
+    @Test
+    fun `parallel requests for overlapping classes keep counts`() {
+        val specMap = ClassTransformationSpecMap()
+        val classes = candidates.toList()
+
+        val threads =
+            (0 until 8).map { idx ->
+                thread {
+                    repeat(200) { iteration ->
+                        val request =
+                            TransformationRequest(
+                                classes.shuffled().take(1 + (idx + iteration) % classes.size).toSet(),
+                                SIMPLE,
+                            )
+                        specMap.retransformed(request)
+                        specMap.retransformed(request.reverse())
+                    }
+                }
+            }
+        threads.forEach { it.join() }
+
+        classes.forEach { assertFalse(specMap.isTransformed(it)) }
+    }
+
+    private fun classesInDifferentStripes(): Pair<Class<*>, Class<*>> {
+        val first = candidates.first()
+        val second = candidates.first { stripe(it) != stripe(first) }
+        return first to second
+    }
+
+    private fun stripe(cls: Class<*>) = System.identityHashCode(cls) and 63
+
+    private val candidates =
+        listOf(
+            Target::class.java,
+            Other::class.java,
+            String::class.java,
+            Runnable::class.java,
+            Number::class.java,
+            Thread::class.java,
+        )
+
+    private fun ClassTransformationSpecMap.retransformed(request: TransformationRequest): Set<Class<*>> {
+        var classes = setOf<Class<*>>()
+        applyTransformation(request) { classes = it.classes }
+        return classes
+    }
+
+    // Without sticky mode a spec dropping to no transforms is still returned once
+    private fun ClassTransformationSpecMap.isTransformed(cls: Class<*>) = this[cls]?.shouldDoSomething == true
+
+    private fun ClassTransformationSpecMap.restored(): Set<Class<*>> {
+        var classes = setOf<Class<*>>()
+        restoreAll { classes = it }
+        return classes
+    }
+
+    class Target
+
+    class Other
+}
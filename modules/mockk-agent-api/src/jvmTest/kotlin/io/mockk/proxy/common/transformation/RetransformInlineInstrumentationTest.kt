@@ -0,0 +1,83 @@
+package io.mockk.proxy.common.transformation
+
+import io.mockk.proxy.MockKAgentLogger
+import io.mockk.proxy.common.transformation.TransformationType.SIMPLE
+import java.lang.instrument.UnmodifiableClassException
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class RetransformInlineInstrumentationTest {
+    private val simple = TransformationRequest(setOf(Target::class.java), SIMPLE)
+
+    @Test
+    fun `failed batch retransform rolls back its requests`() {
+        for (sticky in listOf(false, true)) {
+            val specMap = ClassTransformationSpecMap(sticky)
+            val instrumentation = TestInstrumentation(specMap)
+            instrumentation.failing = true
+
+            var cancellation: () -> Unit = {}
+            assertFailsWith<UnmodifiableClassException> {
+                instrumentation.batch { cancellation = instrumentation.execute(simple) }
+            }
+            assertFalse(specMap[Target::class.java]?.shouldDoSomething == true)
+
+            instrumentation.failing = false
+            cancellation()
+            assertEquals(listOf<Set<Class<*>>>(), instrumentation.retransformed)
+
+            instrumentation.execute(simple)
+            assertEquals(listOf(setOf(Target::class.java)), instrumentation.retransformed)
+            assertTrue(specMap[Target::class.java]!!.shouldDoSimpleIntercept)
+        }
+    }
+
+    @Test
+    fun `cancelling batched request retransforms back`() {
+        val specMap = ClassTransformationSpecMap()
+        val instrumentation = TestInstrumentation(specMap)
+
+        val cancellation = instrumentation.batch { instrumentation.execute(simple) }
+        cancellation()
+
+        assertEquals(listOf(setOf(Target::class.java), setOf(Target::class.java)), instrumentation.retransformed)
+        assertFalse(specMap[Target::class.java]?.shouldDoSomething == true)
+    }
+
+    private class TestInstrumentation(
+        specMap: ClassTransformationSpecMap,
+    ) : RetransformInlineInstrumentation(NoOpLogger, specMap) {
+        var failing = false
+        val retransformed = mutableListOf<Set<Class<*>>>()
+
+        override fun retransform(classesToTransform: Collection<Class<*>>) {
+            if (failing) {
+                throw UnmodifiableClassException()
+            }
+            retransformed.add(classesToTransform.toSet())
+        }
+    }
+
+    private object NoOpLogger : MockKAgentLogger {
+        override fun debug(msg: String) {}
+
+        override fun trace(msg: String) {}
+
+        override fun trace(
+            ex: Throwable,
+            msg: String,
+        ) {}
+
+        override fun warn(msg: String) {}
+
+        override fun warn(
+            ex: Throwable,
+            msg: String,
+        ) {}
+    }
+
+    class Target
+}
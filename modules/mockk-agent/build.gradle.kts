@@ -42,6 +42,7 @@
             dependencies {
                 implementation(dependencies.platform(libs.junit.bom))
                 implementation("org.junit.jupiter:junit-jupiter")
+                implementation(projects.modules.mockkDsl)
                 runtimeOnly("org.junit.platform:junit-platform-launcher")
             }
         }
@@ -14,7 +14,7 @@ public JvmMockKConstructorProxyAdvice(@NotNull MockHandlerMap handlers) {
 
     @Advice.OnMethodExit
     private static void exit(
-            @ProxyAdviceId long id,
+            @ProxyAdviceId int id,
             @Advice.This Object self,
             @Advice.AllArguments final Object[] arguments
     ) {
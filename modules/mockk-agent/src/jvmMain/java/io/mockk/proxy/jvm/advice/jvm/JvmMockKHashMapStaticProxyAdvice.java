@@ -21,7 +21,7 @@ public JvmMockKHashMapStaticProxyAdvice(MockHandlerMap handlers) {
     }
 
     @OnMethodEnter(skipOn = OnNonDefaultValue.class)
-    private static Callable<?> enterStatic(@ProxyAdviceId long id,
+    private static Callable<?> enterStatic(@ProxyAdviceId int id,
                                            @Origin final Method method,
                                            @AllArguments final Object[] arguments) throws Throwable {
         if (arguments.length == 1 && arguments[0] == HashMap.class) {
@@ -3,6 +3,7 @@
 import io.mockk.proxy.jvm.advice.BaseAdvice;
 import io.mockk.proxy.jvm.advice.ProxyAdviceId;
 import io.mockk.proxy.jvm.dispatcher.JvmMockKDispatcher;
+import io.mockk.proxy.jvm.dispatcher.JvmMockKLiveMocks;
 import net.bytebuddy.asm.Advice;
 import net.bytebuddy.asm.Advice.*;
 
@@ -20,12 +21,17 @@ public JvmMockKProxyAdvice(MockHandlerMap handlers) {
 
     @OnMethodEnter(skipOn = OnNonDefaultValue.class)
     private static Callable<?> enter(
-            @ProxyAdviceId long id,
+            @ProxyAdviceId int id,
             @This Object self,
             @Origin final Method method,
             @AllArguments final Object[] arguments
     ) throws Throwable {
 
+        // fast reject for classes without mocked instances
+        if (!JvmMockKLiveMocks.hasLiveMocks(self.getClass())) {
+            return null;
+        }
+
         // workaround for #35
         if (self.getClass() == HashMap.class) {
             if (arguments.length == 1 &&
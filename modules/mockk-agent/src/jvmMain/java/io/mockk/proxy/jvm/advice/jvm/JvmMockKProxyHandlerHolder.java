@@ -0,0 +1,15 @@
+package io.mockk.proxy.jvm.advice.jvm;
+
+import io.mockk.proxy.MockKInvocationHandler;
+
+/**
+ * Implemented by subclass proxies, which keep their handler in a field
+ * instead of looking it up in the handler map on every call.
+ */
+public interface JvmMockKProxyHandlerHolder {
+    String HANDLER_FIELD = "mockk$handler";
+
+    MockKInvocationHandler getMockKProxyHandler();
+
+    void setMockKProxyHandler(MockKInvocationHandler handler);
+}
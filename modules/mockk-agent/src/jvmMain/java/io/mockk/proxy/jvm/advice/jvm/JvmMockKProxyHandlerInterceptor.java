@@ -0,0 +1,60 @@
+package io.mockk.proxy.jvm.advice.jvm;
+
+import io.mockk.proxy.MockKInvocationHandler;
+import io.mockk.proxy.jvm.advice.Interceptor;
+import io.mockk.proxy.jvm.advice.SelfCallEliminator;
+import io.mockk.proxy.jvm.util.DefaultInterfaceMethodResolver;
+import net.bytebuddy.implementation.bind.annotation.*;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+/**
+ * Interceptor of subclass proxies, calling the handler held by the proxy itself.
+ * <p>
+ * Unlike inline advice it doesn't go through the dispatcher,
+ * so subclass proxies work before the agent is attached and its boot classes are loaded.
+ */
+public class JvmMockKProxyHandlerInterceptor {
+    @RuntimeType
+    @BindingPriority(BindingPriority.DEFAULT * 2)
+    public static Object intercept(@This Object self,
+                                   @Origin Method method,
+                                   @AllArguments Object[] args,
+                                   @SuperCall final Callable<Object> originalMethod) throws Throwable {
+        Callable<?> handler = handler(self, method, args);
+
+        if (handler == null) {
+            return originalMethod.call();
+        }
+
+        return handler.call();
+    }
+
+    @RuntimeType
+    public static Object interceptNoSuper(@This Object self,
+                                          @Origin Method method,
+                                          @AllArguments Object[] args) throws Throwable {
+        Callable<?> handler = handler(self, method, args);
+
+        if (handler == null) {
+            handler = DefaultInterfaceMethodResolver.Companion.getDefaultImplementationOrNull$mockk_agent(self, method, args);
+        }
+
+        if (handler == null) {
+            return null;
+        }
+
+        return handler.call();
+    }
+
+    private static Callable<?> handler(Object self, Method method, Object[] args) {
+        MockKInvocationHandler handler = ((JvmMockKProxyHandlerHolder) self).getMockKProxyHandler();
+
+        if (handler == null || SelfCallEliminator.INSTANCE.isSelf(self, method)) {
+            return null;
+        }
+
+        return new Interceptor(handler, self, method, args);
+    }
+}
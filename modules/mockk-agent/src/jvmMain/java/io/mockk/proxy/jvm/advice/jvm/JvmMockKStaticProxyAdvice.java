@@ -18,7 +18,7 @@ public JvmMockKStaticProxyAdvice(MockHandlerMap handlers) {
     }
 
     @OnMethodEnter(skipOn = OnNonDefaultValue.class)
-    private static Callable<?> enterStatic(@ProxyAdviceId long id,
+    private static Callable<?> enterStatic(@ProxyAdviceId int id,
                                            @Origin final Method method,
                                            @AllArguments final Object[] arguments) throws Throwable {
         Object self = method.getDeclaringClass();
@@ -4,11 +4,29 @@
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Entry point of the advice inlined into instrumented classes.
+ * <p>
+ * Dispatchers are kept in fixed static slots indexed by a small id, so the advice reads an array element
+ * instead of hashing a boxed key on every call into an instrumented class.
+ * The slots are a plain array, so looking one up calls no JDK code that could be instrumented itself.
+ * A slot is set before the transformer inlining advice with its id is registered,
+ * and advice that still reads {@code null} lets the call through.
+ * Ids beyond the slots, which are only handed out when many agents are initialized in one JVM,
+ * are kept in a map.
+ */
 public abstract class JvmMockKDispatcher {
-    private static final Map<Long, JvmMockKDispatcher> DISPATCHER_MAP = new ConcurrentHashMap<>();
+    private static final JvmMockKDispatcher[] DISPATCHER_SLOTS = new JvmMockKDispatcher[64];
+    private static final Map<Integer, JvmMockKDispatcher> DISPATCHER_MAP = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    public static JvmMockKDispatcher get(int id, Object obj) {
+        if (id < DISPATCHER_SLOTS.length) {
+            return DISPATCHER_SLOTS[id];
+        }
 
-    public static JvmMockKDispatcher get(long id, Object obj) {
         if (obj == DISPATCHER_MAP) {
             return null;
         }
@@ -16,8 +34,16 @@ public static JvmMockKDispatcher get(long id, Object obj) {
         return DISPATCHER_MAP.get(id);
     }
 
-    public static void set(long id, JvmMockKDispatcher dispatcher) {
-        DISPATCHER_MAP.put(id, dispatcher);
+    public static int nextId() {
+        return NEXT_ID.getAndIncrement();
+    }
+
+    public static void set(int id, JvmMockKDispatcher dispatcher) {
+        if (id < DISPATCHER_SLOTS.length) {
+            DISPATCHER_SLOTS[id] = dispatcher;
+        } else {
+            DISPATCHER_MAP.put(id, dispatcher);
+        }
     }
 
     public abstract Callable<?> handler(
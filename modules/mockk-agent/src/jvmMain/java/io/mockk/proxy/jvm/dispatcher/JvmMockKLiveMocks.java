@@ -0,0 +1,82 @@
+package io.mockk.proxy.jvm.dispatcher;
+
+/**
+ * Classes that currently have mocked instances.
+ * <p>
+ * Inline advice checks this before anything else, so calls on instances of classes without mocks
+ * are rejected by scanning a short array, without touching the handler map.
+ * A class is counted once per mock created and uncounted when that mock is cancelled;
+ * mocks that are just garbage collected keep their class counted, which only costs the slower path.
+ * <p>
+ * Loaded by the bootstrap class loader, so it uses no JDK classes that may be instrumented themselves.
+ */
+public final class JvmMockKLiveMocks {
+    private static final Class<?>[] NO_CLASSES = new Class<?>[0];
+
+    private static volatile Class<?>[] mockedClasses = NO_CLASSES;
+    private static int[] mockCounts = new int[0];
+
+    private JvmMockKLiveMocks() {
+    }
+
+    public static boolean hasLiveMocks(Class<?> cls) {
+        Class<?>[] classes = mockedClasses;
+        for (Class<?> mockedClass : classes) {
+            if (mockedClass == cls) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static synchronized void mockCreated(Class<?> cls) {
+        Class<?>[] classes = mockedClasses;
+        int idx = indexOf(classes, cls);
+        if (idx >= 0) {
+            mockCounts[idx]++;
+            return;
+        }
+
+        Class<?>[] newClasses = new Class<?>[classes.length + 1];
+        int[] newCounts = new int[classes.length + 1];
+        for (int i = 0; i < classes.length; i++) {
+            newClasses[i] = classes[i];
+            newCounts[i] = mockCounts[i];
+        }
+        newClasses[classes.length] = cls;
+        newCounts[classes.length] = 1;
+
+        mockCounts = newCounts;
+        mockedClasses = newClasses;
+    }
+
+    public static synchronized void mockCancelled(Class<?> cls) {
+        Class<?>[] classes = mockedClasses;
+        int idx = indexOf(classes, cls);
+        if (idx < 0 || --mockCounts[idx] > 0) {
+            return;
+        }
+
+        Class<?>[] newClasses = new Class<?>[classes.length - 1];
+        int[] newCounts = new int[classes.length - 1];
+        for (int i = 0, j = 0; i < classes.length; i++) {
+            if (i != idx) {
+                newClasses[j] = classes[i];
+                newCounts[j] = mockCounts[i];
+                j++;
+            }
+        }
+
+        mockCounts = newCounts;
+        mockedClasses = newClasses;
+    }
+
+    private static int indexOf(Class<?>[] classes, Class<?> cls) {
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] == cls) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -6,19 +6,19 @@
 import io.mockk.proxy.MockKConstructorProxyMaker
 import io.mockk.proxy.MockKInvocationHandler
 import io.mockk.proxy.common.CancelableResult
-import io.mockk.proxy.common.transformation.InlineInstrumentation
 import io.mockk.proxy.common.transformation.TransformationRequest
 import io.mockk.proxy.common.transformation.TransformationType
 
 internal class ConstructorProxyMaker(
     private val log: MockKAgentLogger,
-    private val inliner: InlineInstrumentation?,
-    private val constructorHandlers: MutableMap<Any, MockKInvocationHandler>,
+    private val inlineSupport: Lazy<InlineSupport>,
 ) : MockKConstructorProxyMaker {
     override fun constructorProxy(
         clazz: Class<*>,
         handler: MockKInvocationHandler,
     ): Cancelable<Class<*>> {
+        val inliner = inlineSupport.value.inliner
+        val constructorHandlers = inlineSupport.value.constructorHandlers
         if (inliner == null) {
             throw MockKAgentException(
                 "Failed to create constructor proxy for $clazz.\n" +
@@ -0,0 +1,18 @@
+package io.mockk.proxy.jvm
+
+import io.mockk.proxy.jvm.advice.jvm.MockHandlerMap
+import io.mockk.proxy.jvm.transformation.JvmInlineInstrumentation
+
+/**
+ * Parts of the agent set up once it is attached to the JVM:
+ * inline instrumentation, if attaching succeeded, and the handler maps its advice reads.
+ *
+ * Subclass proxies of interfaces need none of them, so the agent is attached only when a mock needs more.
+ * Nothing using the dispatcher classes may run before that, as they have to be loaded from the boot jar.
+ */
+internal class InlineSupport(
+    val inliner: JvmInlineInstrumentation?,
+    val handlers: MockHandlerMap,
+    val staticHandlers: MockHandlerMap,
+    val constructorHandlers: MockHandlerMap,
+)
@@ -1,5 +1,6 @@
 package io.mockk.proxy.jvm
 
+import io.mockk.core.config.UnifiedPropertiesLoader
 import io.mockk.proxy.MockKAgentFactory
 import io.mockk.proxy.MockKAgentLogFactory
 import io.mockk.proxy.MockKAgentLogger
@@ -7,11 +8,17 @@
 import io.mockk.proxy.MockKProxyMaker
 import io.mockk.proxy.MockKStaticProxyMaker
 import io.mockk.proxy.common.transformation.ClassTransformationSpecMap
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKConstructorProxyAdvice
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKHashMapStaticProxyAdvice
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyAdvice
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKStaticProxyAdvice
 import io.mockk.proxy.jvm.advice.jvm.MockHandlerMap
 import io.mockk.proxy.jvm.dispatcher.BootJarLoader
+import io.mockk.proxy.jvm.transformation.FixParameterNamesVisitor
 import io.mockk.proxy.jvm.transformation.InliningClassTransformer
 import io.mockk.proxy.jvm.transformation.JvmInlineInstrumentation
 import io.mockk.proxy.jvm.transformation.SubclassInstrumentation
+import io.mockk.proxy.jvm.transformation.TransformedClassCache
 import net.bytebuddy.ByteBuddy
 import net.bytebuddy.NamingStrategy
 import net.bytebuddy.agent.ByteBuddyAgent
@@ -27,17 +34,11 @@ class JvmMockKAgentFactory : MockKAgentFactory {
     private lateinit var jvmProxyMaker: MockKProxyMaker
     private lateinit var jvmStaticProxyMaker: MockKStaticProxyMaker
     private lateinit var jvmConstructorProxyMaker: MockKConstructorProxyMaker
+    private lateinit var jvmInlineSupport: Lazy<InlineSupport>
 
     override fun init(logFactory: MockKAgentLogFactory) {
         log = logFactory.logger(JvmMockKAgentFactory::class.java)
 
-        val loader =
-            BootJarLoader(
-                logFactory.logger(BootJarLoader::class.java),
-            )
-
-        val jvmInstrumentation = initInstrumentation(loader)
-
         class Initializer {
             fun preload() {
                 listOf(
@@ -57,8 +58,6 @@ fun preload() {
             }
 
             fun init() {
-                preload()
-
                 val byteBuddy =
                     ByteBuddy()
                         .with(TypeValidation.DISABLED)
@@ -70,62 +69,93 @@ fun init() {
                         byteBuddy,
                     )
 
-                val handlers = MockHandlerMap.create(jvmInstrumentation != null)
-                val staticHandlers = MockHandlerMap.create(jvmInstrumentation != null)
-                val constructorHandlers = MockHandlerMap.create(jvmInstrumentation != null)
-
-                val specMap = ClassTransformationSpecMap()
-
-                val inliner =
-                    jvmInstrumentation?.let {
-                        it.addTransformer(
-                            InliningClassTransformer(
-                                logFactory.logger(InliningClassTransformer::class.java),
-                                specMap,
-                                handlers,
-                                staticHandlers,
-                                constructorHandlers,
-                                byteBuddy,
-                            ),
-                            true,
-                        )
-
-                        JvmInlineInstrumentation(
-                            logFactory.logger(JvmInlineInstrumentation::class.java),
-                            specMap,
-                            jvmInstrumentation,
-                        )
-                    }
+                val inlineSupport = lazy { initInlineSupport(byteBuddy) }
+                jvmInlineSupport = inlineSupport
 
                 val subclasser =
                     SubclassInstrumentation(
                         logFactory.logger(SubclassInstrumentation::class.java),
-                        handlers,
                         byteBuddy,
                     )
 
                 jvmProxyMaker =
                     ProxyMaker(
                         logFactory.logger(ProxyMaker::class.java),
-                        inliner,
+                        inlineSupport,
                         subclasser,
                         jvmInstantiator,
-                        handlers,
                     )
 
                 jvmStaticProxyMaker =
                     StaticProxyMaker(
                         logFactory.logger(StaticProxyMaker::class.java),
-                        inliner,
-                        staticHandlers,
+                        inlineSupport,
                     )
 
                 jvmConstructorProxyMaker =
                     ConstructorProxyMaker(
                         logFactory.logger(ConstructorProxyMaker::class.java),
-                        inliner,
-                        constructorHandlers,
+                        inlineSupport,
+                    )
+            }
+
+            fun initInlineSupport(byteBuddy: ByteBuddy): InlineSupport {
+                val loader =
+                    BootJarLoader(
+                        logFactory.logger(BootJarLoader::class.java),
                     )
+
+                val jvmInstrumentation = initInstrumentation(loader)
+
+                preload()
+
+                val handlers = MockHandlerMap.create(jvmInstrumentation != null)
+                val staticHandlers = MockHandlerMap.create(jvmInstrumentation != null)
+                val constructorHandlers = MockHandlerMap.create(jvmInstrumentation != null)
+
+                val specMap =
+                    ClassTransformationSpecMap(
+                        sticky =
+                            UnifiedPropertiesLoader
+                                .loadProperties()
+                                .getProperty(MockKAgent.STICKY_INSTRUMENTATION, "false")
+                                .toBoolean(),
+                    )
+
+                val inliner =
+                    jvmInstrumentation?.let {
+                        val transformer =
+                            InliningClassTransformer(
+                                logFactory.logger(InliningClassTransformer::class.java),
+                                specMap,
+                                handlers,
+                                staticHandlers,
+                                constructorHandlers,
+                                byteBuddy,
+                                TransformedClassCache.fromSystemProperty(
+                                    logFactory.logger(TransformedClassCache::class.java),
+                                    listOf(
+                                        InliningClassTransformer::class.java,
+                                        FixParameterNamesVisitor::class.java,
+                                        JvmMockKProxyAdvice::class.java,
+                                        JvmMockKStaticProxyAdvice::class.java,
+                                        JvmMockKHashMapStaticProxyAdvice::class.java,
+                                        JvmMockKConstructorProxyAdvice::class.java,
+                                    ),
+                                ),
+                            )
+                        it.addTransformer(transformer, true)
+
+                        JvmInlineInstrumentation(
+                            logFactory.logger(JvmInlineInstrumentation::class.java),
+                            specMap,
+                            jvmInstrumentation,
+                            transformer,
+                        )
+                    }
+                MockKAgent.inliner = inliner
+
+                return InlineSupport(inliner, handlers, staticHandlers, constructorHandlers)
             }
         }
         Initializer().init()
@@ -152,6 +182,18 @@ private fun initInstrumentation(loader: BootJarLoader): Instrumentation? {
         return instrumentation
     }
 
+    /**
+     * A batch started before the agent is attached doesn't attach it,
+     * as it may hold interface mocks only. Its inline mocks are then transformed one by one.
+     */
+    override fun <T> batchTransformations(block: () -> T): T {
+        if (!jvmInlineSupport.isInitialized()) {
+            return block()
+        }
+        val inliner = jvmInlineSupport.value.inliner ?: return block()
+        return inliner.batch(block)
+    }
+
     override val instantiator get() = jvmInstantiator
     override val proxyMaker get() = jvmProxyMaker
     override val staticProxyMaker get() = jvmStaticProxyMaker
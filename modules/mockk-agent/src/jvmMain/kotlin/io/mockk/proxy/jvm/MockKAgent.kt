@@ -0,0 +1,32 @@
+package io.mockk.proxy.jvm
+
+import io.mockk.proxy.common.transformation.RetransformInlineInstrumentation
+
+/**
+ * Controls the inline instrumentation installed by the JVM agent.
+ */
+object MockKAgent {
+    /**
+     * Configuration key enabling sticky instrumentation.
+     *
+     * Classes keep their advice when their last mock is cancelled,
+     * so a class mocked in many tests is retransformed once instead of twice per test.
+     * The advice of a class without mocks only checks that it has no mocks and runs the original code.
+     * The original bytecode comes back with [restoreAll] or when the JVM exits.
+     */
+    const val STICKY_INSTRUMENTATION = "stickyInstrumentation"
+
+    @Volatile
+    internal var inliner: RetransformInlineInstrumentation? = null
+
+    /**
+     * Restores the original bytecode of classes that have no mocks anymore
+     * but kept their advice because of sticky instrumentation.
+     *
+     * Does nothing when sticky instrumentation is off or no class was transformed.
+     */
+    @JvmStatic
+    fun restoreAll() {
+        inliner?.restoreAll()
+    }
+}
@@ -10,16 +10,18 @@
 import io.mockk.proxy.common.transformation.InlineInstrumentation
 import io.mockk.proxy.common.transformation.TransformationRequest
 import io.mockk.proxy.common.transformation.TransformationType.SIMPLE
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerHolder
+import io.mockk.proxy.jvm.dispatcher.JvmMockKLiveMocks
+import io.mockk.proxy.jvm.transformation.InlineTransformationTargets
 import io.mockk.proxy.jvm.transformation.SubclassInstrumentation
 import java.lang.reflect.Method
 import java.lang.reflect.Modifier
 
 internal class ProxyMaker(
     private val log: MockKAgentLogger,
-    private val inliner: InlineInstrumentation?,
+    private val inlineSupport: Lazy<InlineSupport>,
     private val subclasser: SubclassInstrumentation,
     private val instantiator: MockKInstantiatior,
-    private val handlers: MutableMap<Any, MockKInvocationHandler>,
 ) : MockKProxyMaker {
     override fun <T : Any> proxy(
         clazz: Class<T>,
@@ -34,13 +36,20 @@ override fun <T : Any> proxy(
         // itself.  We need to determine this early, so that the subclass will be inlined as well.
         val actualClass = findActualClassToBeProxied(clazz)
 
-        val cancellation = inline(actualClass)
+        if (instance == null && actualClass.isInterface && !inlineSupport.isInitialized()) {
+            return interfaceProxy(actualClass, interfaces, handler, useDefaultConstructor)
+        }
+
+        val inliner = inlineSupport.value.inliner
+        val handlers = inlineSupport.value.handlers
+
+        val cancellation = inline(actualClass, inliner)
 
         val result = CancelableResult<T>(cancelBlock = cancellation)
 
         val proxyClass =
             try {
-                subclass(actualClass, interfaces)
+                subclass(actualClass, interfaces, inliner)
             } catch (ex: Exception) {
                 result.cancel()
                 throw MockKAgentException("Failed to subclass $actualClass", ex)
@@ -49,11 +58,21 @@ override fun <T : Any> proxy(
         try {
             val proxy = instantiate(actualClass, proxyClass, useDefaultConstructor, instance)
 
-            handlers[proxy] = handler
+            if (proxy is JvmMockKProxyHandlerHolder) {
+                proxy.mockKProxyHandler = handler
+            } else {
+                handlers[proxy] = handler
+            }
+            JvmMockKLiveMocks.mockCreated(proxy.javaClass)
             return result
                 .withValue(proxy)
                 .alsoOnCancel {
-                    handlers.remove(proxy)
+                    if (proxy is JvmMockKProxyHandlerHolder) {
+                        proxy.mockKProxyHandler = null
+                    } else {
+                        handlers.remove(proxy)
+                    }
+                    JvmMockKLiveMocks.mockCancelled(proxy.javaClass)
                 }
         } catch (e: Exception) {
             result.cancel()
@@ -61,6 +80,35 @@ override fun <T : Any> proxy(
         }
     }
 
+    /**
+     * Builds a proxy of an interface without attaching the agent, as the subclass proxy intercepts all its methods.
+     * Its class isn't tracked as having live mocks, as inline advice never has to handle calls to it.
+     */
+    private fun <T : Any> interfaceProxy(
+        clazz: Class<T>,
+        interfaces: Array<Class<*>>,
+        handler: MockKInvocationHandler,
+        useDefaultConstructor: Boolean,
+    ): Cancelable<T> {
+        val proxyClass =
+            try {
+                subclass(clazz, interfaces, null)
+            } catch (ex: Exception) {
+                throw MockKAgentException("Failed to subclass $clazz", ex)
+            }
+
+        val proxy =
+            try {
+                instantiate(clazz, proxyClass, useDefaultConstructor, null)
+            } catch (e: Exception) {
+                throw MockKAgentException("Instantiation exception", e)
+            }
+
+        val holder = proxy as JvmMockKProxyHandlerHolder
+        holder.mockKProxyHandler = handler
+        return CancelableResult(proxy) { holder.mockKProxyHandler = null }
+    }
+
     private fun <T : Any> instantiate(
         clazz: Class<T>,
         proxyClass: Class<T>,
@@ -82,11 +130,12 @@ private fun <T : Any> instantiate(
             }
         }
 
-    private fun <T : Any> inline(clazz: Class<T>): () -> Unit {
-        val superclasses = getAllSuperclasses(clazz)
-
+    private fun <T : Any> inline(
+        clazz: Class<T>,
+        inliner: InlineInstrumentation?,
+    ): () -> Unit {
         return if (inliner != null) {
-            val transformRequest = TransformationRequest(superclasses, SIMPLE)
+            val transformRequest = TransformationRequest(InlineTransformationTargets.of(clazz), SIMPLE)
 
             inliner.execute(transformRequest)
         } else {
@@ -115,6 +164,7 @@ private fun <T : Any> findActualClassToBeProxied(clazz: Class<T>): Class<T> {
     private fun <T : Any> subclass(
         clazz: Class<T>,
         interfaces: Array<Class<*>>,
+        inliner: InlineInstrumentation?,
     ): Class<T> =
         if (Modifier.isFinal(clazz.modifiers)) {
             log.trace("Taking instance of $clazz itself because it is final.")
@@ -202,29 +252,5 @@ private fun gatherAllMethods(clazz: Class<*>): Array<Method> =
             } else {
                 gatherAllMethods(clazz.superclass) + clazz.declaredMethods
             }
-
-        private fun getAllSuperclasses(cls: Class<*>): Set<Class<*>> {
-            val result = mutableSetOf<Class<*>>()
-
-            var clazz = cls
-            while (true) {
-                result.add(clazz)
-                addInterfaces(result, clazz)
-                clazz = clazz.superclass ?: break
-            }
-
-            return result
-        }
-
-        private fun addInterfaces(
-            result: MutableSet<Class<*>>,
-            clazz: Class<*>,
-        ) {
-            for (intf in clazz.interfaces) {
-                if (result.add(intf)) {
-                    addInterfaces(result, intf)
-                }
-            }
-        }
     }
 }
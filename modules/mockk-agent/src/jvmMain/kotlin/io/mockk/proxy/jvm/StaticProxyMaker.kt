@@ -6,19 +6,19 @@
 import io.mockk.proxy.MockKInvocationHandler
 import io.mockk.proxy.MockKStaticProxyMaker
 import io.mockk.proxy.common.CancelableResult
-import io.mockk.proxy.common.transformation.InlineInstrumentation
 import io.mockk.proxy.common.transformation.TransformationRequest
 import io.mockk.proxy.common.transformation.TransformationType
 
 internal class StaticProxyMaker(
     private val log: MockKAgentLogger,
-    private val inliner: InlineInstrumentation?,
-    private val staticHandlers: MutableMap<Any, MockKInvocationHandler>,
+    private val inlineSupport: Lazy<InlineSupport>,
 ) : MockKStaticProxyMaker {
     override fun staticProxy(
         clazz: Class<*>,
         handler: MockKInvocationHandler,
     ): Cancelable<Class<*>> {
+        val inliner = inlineSupport.value.inliner
+        val staticHandlers = inlineSupport.value.staticHandlers
         if (inliner == null) {
             throw MockKAgentException(
                 "Failed to create static proxy for $clazz.\n" +
@@ -1,15 +1,16 @@
 package io.mockk.proxy.jvm.advice
 
+import io.mockk.proxy.MockKInvocationHandler
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerHolder
 import io.mockk.proxy.jvm.advice.jvm.MockHandlerMap
 import io.mockk.proxy.jvm.dispatcher.JvmMockKDispatcher
 import java.lang.reflect.Method
-import java.util.Random
 import java.util.concurrent.Callable
 
 internal open class BaseAdvice(
     private val handlers: MockHandlerMap,
 ) : JvmMockKDispatcher() {
-    val id = randomGen.nextLong()
+    val id = JvmMockKDispatcher.nextId()
 
     override fun handler(
         self: Any,
@@ -17,7 +18,7 @@ override fun handler(
         arguments: Array<Any?>,
     ): Callable<*>? {
         val handler =
-            handlers[self]
+            handlerOf(self)
                 ?: return null
 
         return if (SelfCallEliminator.isSelf(self, method)) {
@@ -52,11 +53,20 @@ override fun handle(
     }
 
     override fun isMock(instance: Any): Boolean {
+        if (instance is JvmMockKProxyHandlerHolder) {
+            return instance.mockKProxyHandler != null
+        }
         // in order to avoid endless checks when concurrent hashmap is mocked we need to exclude handlers map explicitly
         return handlers.isMock(instance)
     }
 
-    companion object {
-        private val randomGen = Random()
-    }
+    /**
+     * Subclass proxies carry their handler in a field, other instances are looked up in the handler map.
+     */
+    private fun handlerOf(self: Any): MockKInvocationHandler? =
+        if (self is JvmMockKProxyHandlerHolder) {
+            self.mockKProxyHandler
+        } else {
+            handlers[self]
+        }
 }
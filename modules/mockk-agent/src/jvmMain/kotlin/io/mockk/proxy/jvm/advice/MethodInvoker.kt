@@ -0,0 +1,69 @@
+package io.mockk.proxy.jvm.advice
+
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Invokes a [Method] through a [MethodHandle] adapted once to `(Object, Object[])Object`.
+ *
+ * Methods that can't be made accessible (e.g. in JDK modules not open to unnamed modules, JDK 16+)
+ * are invoked reflectively instead.
+ * Unlike [Method.invoke], exceptions thrown by the method are not wrapped in an `InvocationTargetException`.
+ */
+internal class MethodInvoker private constructor(
+    private val method: Method,
+    private val handle: MethodHandle?,
+) {
+    fun invoke(
+        self: Any,
+        args: Array<Any?>,
+    ): Any? =
+        if (handle != null) {
+            handle.invokeExact(self, args)
+        } else {
+            method.invoke(self, *args)
+        }
+
+    companion object {
+        private val invokers =
+            object : ClassValue<ConcurrentHashMap<Method, MethodInvoker>>() {
+                override fun computeValue(type: Class<*>) = ConcurrentHashMap<Method, MethodInvoker>()
+            }
+
+        /**
+         * Invoker cached per method. Cache is kept per declaring class, so it does not prevent class unloading.
+         */
+        fun forMethod(method: Method): MethodInvoker =
+            invokers
+                .get(method.declaringClass)
+                .computeIfAbsent(method) { MethodInvoker(it, createHandle(it)) }
+
+        private fun createHandle(method: Method): MethodHandle? {
+            try {
+                method.isAccessible = true
+            } catch (ignored: Exception) {
+                // Skip setting accessible - handle is created only if the method is accessible anyway
+            }
+
+            return try {
+                val parameterCount = method.parameterTypes.size
+                val handle = MethodHandles.lookup().unreflect(method)
+                val withReceiver =
+                    if (Modifier.isStatic(method.modifiers)) {
+                        MethodHandles.dropArguments(handle, 0, Any::class.java)
+                    } else {
+                        handle
+                    }
+                withReceiver
+                    .asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Array<Any?>::class.java, parameterCount)
+            } catch (ignored: IllegalAccessException) {
+                null
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package io.mockk.proxy.jvm.dispatcher
 
 import io.mockk.proxy.MockKAgentLogger
+import java.io.ByteArrayOutputStream
 import java.io.File
-import java.io.FileOutputStream
 import java.io.IOException
 import java.io.InputStream
 import java.lang.instrument.Instrumentation
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
 import java.util.Random
 import java.util.jar.JarEntry
 import java.util.jar.JarFile
@@ -50,23 +54,70 @@ fun loadBootJar(instrumentation: Instrumentation): Boolean {
     private tailrec fun ClassLoader.root(): ClassLoader = if (parent == null) this else parent.root()
 
     private fun buildBootJar(): File? {
+        val content =
+            try {
+                bootJarContent() ?: return null
+            } catch (ex: IOException) {
+                log.trace(ex, "Error creating boot jar")
+                return null
+            }
+
+        return cachedBootJar(content) ?: tempBootJar(content)
+    }
+
+    private fun bootJarContent(): ByteArray? {
+        val bytes = ByteArrayOutputStream()
+        JarOutputStream(bytes).use { out ->
+            for (name in classNames) {
+                if (!addClass(out, name)) {
+                    return null
+                }
+            }
+        }
+        return bytes.toByteArray()
+    }
+
+    /**
+     * Reuses the boot jar written by an earlier JVM, named by the hash of its content,
+     * or writes it for later ones. The file is moved in place once complete,
+     * and used only if its content is exactly the expected one.
+     */
+    private fun cachedBootJar(content: ByteArray): File? =
         try {
-            val boot = createTempBootFile()
-            boot.deleteOnExit()
+            val dir = File(File(System.getProperty("user.home"), ".mockk"), "boot")
+            val jar = File(dir, "mockk_boot_${sha256(content)}.jar")
 
-            JarOutputStream(FileOutputStream(boot)).use { out ->
-                for (name in classNames) {
-                    if (!addClass(out, name)) {
-                        return null
+            if (!jar.isFile || !jar.readBytes().contentEquals(content)) {
+                Files.createDirectories(dir.toPath())
+                val tmp = Files.createTempFile(dir.toPath(), "mockk_boot", ".tmp")
+                try {
+                    Files.write(tmp, content)
+                    try {
+                        Files.move(tmp, jar.toPath(), StandardCopyOption.ATOMIC_MOVE)
+                    } catch (ex: AtomicMoveNotSupportedException) {
+                        Files.move(tmp, jar.toPath(), StandardCopyOption.REPLACE_EXISTING)
                     }
+                } finally {
+                    Files.deleteIfExists(tmp)
                 }
+                log.trace("Boot jar written to $jar")
             }
-            return boot
+            jar
+        } catch (ex: Exception) {
+            log.trace(ex, "Can't reuse boot jar, writing a temporary one")
+            null
+        }
+
+    private fun tempBootJar(content: ByteArray): File? =
+        try {
+            val boot = createTempBootFile()
+            boot.deleteOnExit()
+            boot.writeBytes(content)
+            boot
         } catch (ex: IOException) {
             log.trace(ex, "Error creating boot jar")
-            return null
+            null
         }
-    }
 
     private fun createTempBootFile() =
         try {
@@ -93,7 +144,8 @@ private fun addClass(
             return false
         }
 
-        out.putNextEntry(JarEntry("$fileName.class"))
+        // fixed time, so the jar content only depends on the classes
+        out.putNextEntry(JarEntry("$fileName.class").apply { time = ENTRY_TIME })
         inputStream.use { it.copyTo(out) }
         out.closeEntry()
         return true
@@ -104,9 +156,18 @@ private fun addClass(
 
         private val rnd = Random()
 
+        private const val ENTRY_TIME = 315532800000L
+
+        private fun sha256(bytes: ByteArray): String =
+            MessageDigest
+                .getInstance("SHA-256")
+                .digest(bytes)
+                .joinToString("") { "%02x".format(it) }
+
         private val classNames =
             arrayOf(
                 pkg + "JvmMockKDispatcher",
+                pkg + "JvmMockKLiveMocks",
                 pkg + "JvmMockKWeakMap",
                 pkg + "JvmMockKWeakMap\$StrongKey",
                 pkg + "JvmMockKWeakMap\$WeakKey",
@@ -0,0 +1,133 @@
+package io.mockk.proxy.jvm.prebuilt
+
+import net.bytebuddy.jar.asm.AnnotationVisitor
+import net.bytebuddy.jar.asm.ClassReader
+import net.bytebuddy.jar.asm.ClassVisitor
+import net.bytebuddy.jar.asm.FieldVisitor
+import net.bytebuddy.jar.asm.MethodVisitor
+import net.bytebuddy.jar.asm.Type
+import net.bytebuddy.utility.OpenedClassReader
+
+/**
+ * Finds names of types mocked by a compiled test class.
+ *
+ * These are types of fields annotated with `@MockK`, `@RelaxedMockK` or `@SpyK`,
+ * and class literals in methods calling the mock factory, which is where `mockk<T>()`,
+ * `spyk<T>()` and `mockkClass(T::class)` end up after inlining.
+ * Class literals used for other purposes in these methods are reported as well.
+ */
+internal object MockTargetScanner {
+    private val mockAnnotations =
+        setOf(
+            "Lio/mockk/impl/annotations/MockK;",
+            "Lio/mockk/impl/annotations/RelaxedMockK;",
+            "Lio/mockk/impl/annotations/SpyK;",
+        )
+
+    private const val MOCK_FACTORY = "io/mockk/MockKGateway\$MockFactory"
+    private val mockFactoryMethods = setOf("mockk", "spyk")
+
+    private const val REFLECTION = "kotlin/jvm/internal/Reflection"
+    private const val ANNOTATIONS_SUFFIX = "\$annotations"
+
+    fun scan(classFile: ByteArray): Set<String> {
+        val visitor = TargetVisitor()
+        OpenedClassReader.of(classFile).accept(visitor, ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
+        return visitor.targets()
+    }
+
+    private class TargetVisitor : ClassVisitor(OpenedClassReader.ASM_API) {
+        private val fieldTypes = mutableMapOf<String, Type>()
+        private val annotatedFields = mutableSetOf<String>()
+        private val annotatedProperties = mutableSetOf<String>()
+        private val classLiterals = mutableSetOf<Type>()
+
+        fun targets(): Set<String> {
+            val types = annotatedFields.mapNotNull { fieldTypes[it] }.toMutableSet()
+            for (property in annotatedProperties) {
+                fieldTypes.entries
+                    .firstOrNull { it.key.equals(property, ignoreCase = true) }
+                    ?.let { types.add(it.value) }
+            }
+            types.addAll(classLiterals)
+
+            return types
+                .filter { it.sort == Type.OBJECT }
+                .map { it.className }
+                .toSet()
+        }
+
+        override fun visitField(
+            access: Int,
+            name: String,
+            descriptor: String,
+            signature: String?,
+            value: Any?,
+        ): FieldVisitor {
+            fieldTypes[name] = Type.getType(descriptor)
+
+            return object : FieldVisitor(OpenedClassReader.ASM_API) {
+                override fun visitAnnotation(
+                    descriptor: String,
+                    visible: Boolean,
+                ): AnnotationVisitor? {
+                    if (descriptor in mockAnnotations) {
+                        annotatedFields.add(name)
+                    }
+                    return null
+                }
+            }
+        }
+
+        override fun visitMethod(
+            access: Int,
+            name: String,
+            descriptor: String,
+            signature: String?,
+            exceptions: Array<out String>?,
+        ): MethodVisitor =
+            object : MethodVisitor(OpenedClassReader.ASM_API) {
+                private val literals = mutableSetOf<Type>()
+                private var lastLiteral: Type? = null
+                private var callsMockFactory = false
+
+                override fun visitAnnotation(
+                    descriptor: String,
+                    visible: Boolean,
+                ): AnnotationVisitor? {
+                    // Kotlin keeps annotations of properties on a synthetic `get<Name>$annotations` method
+                    if (descriptor in mockAnnotations && name.startsWith("get") && name.endsWith(ANNOTATIONS_SUFFIX)) {
+                        annotatedProperties.add(name.removePrefix("get").removeSuffix(ANNOTATIONS_SUFFIX))
+                    }
+                    return null
+                }
+
+                override fun visitLdcInsn(value: Any?) {
+                    lastLiteral = value as? Type
+                }
+
+                override fun visitMethodInsn(
+                    opcode: Int,
+                    owner: String,
+                    name: String,
+                    descriptor: String,
+                    isInterface: Boolean,
+                ) {
+                    val literal = lastLiteral
+                    if (literal != null && owner == REFLECTION && name == "getOrCreateKotlinClass") {
+                        literals.add(literal)
+                    }
+                    if (owner == MOCK_FACTORY && name in mockFactoryMethods) {
+                        callsMockFactory = true
+                    }
+                    lastLiteral = null
+                }
+
+                override fun visitEnd() {
+                    if (callsMockFactory) {
+                        classLiterals.addAll(literals)
+                    }
+                }
+            }
+    }
+}
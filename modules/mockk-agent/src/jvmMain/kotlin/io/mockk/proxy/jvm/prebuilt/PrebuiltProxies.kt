@@ -0,0 +1,69 @@
+package io.mockk.proxy.jvm.prebuilt
+
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.security.MessageDigest
+
+/**
+ * Conventions shared by [PrebuiltProxyGenerator] and the subclass instrumentation loading its output.
+ *
+ * A prebuilt proxy has a name derived from the proxied types only, so it can be found on the classpath,
+ * and records a [signature] of their methods, so a proxy built against an older version of them is not used.
+ */
+internal object PrebuiltProxies {
+    const val SIGNATURE_FIELD = "mockk\$signature"
+
+    fun name(
+        clazz: Class<*>,
+        interfaces: Array<Class<*>>,
+    ): String {
+        var baseName = clazz.name
+        if (baseName.startsWith("java.")) {
+            baseName = "io.mockk.renamed.$baseName"
+        }
+        if (interfaces.isEmpty()) {
+            return "$baseName\$MockKProxy"
+        }
+        val interfaceNames = interfaces.map { it.name }.sorted().joinToString(",")
+        return "$baseName\$MockKProxy\$${sha256(interfaceNames).substring(0, 16)}"
+    }
+
+    fun signature(
+        clazz: Class<*>,
+        interfaces: Array<Class<*>>,
+    ): String {
+        val types = linkedSetOf<Class<*>>()
+        generateSequence(clazz) { it.superclass }.forEach { addWithInterfaces(types, it) }
+        interfaces.forEach { addWithInterfaces(types, it) }
+
+        val methods =
+            types
+                .flatMap { type ->
+                    type.declaredMethods
+                        .filter { !Modifier.isPrivate(it.modifiers) && !Modifier.isStatic(it.modifiers) }
+                        .map { it.describe() }
+                }.sorted()
+
+        return sha256(methods.joinToString("\n"))
+    }
+
+    private fun addWithInterfaces(
+        result: MutableSet<Class<*>>,
+        clazz: Class<*>,
+    ) {
+        if (result.add(clazz)) {
+            clazz.interfaces.forEach { addWithInterfaces(result, it) }
+        }
+    }
+
+    private fun Method.describe() =
+        "${declaringClass.name} $modifiers $name" +
+            parameterTypes.joinToString(",", "(", ")") { it.name } +
+            returnType.name
+
+    private fun sha256(text: String): String =
+        MessageDigest
+            .getInstance("SHA-256")
+            .digest(text.toByteArray())
+            .joinToString("") { "%02x".format(it) }
+}
@@ -0,0 +1,97 @@
+package io.mockk.proxy.jvm.prebuilt
+
+import io.mockk.proxy.jvm.transformation.SubclassInstrumentation
+import net.bytebuddy.ByteBuddy
+import net.bytebuddy.dynamic.scaffold.TypeValidation
+import java.io.File
+import java.lang.reflect.Modifier
+import kotlin.system.exitProcess
+
+/**
+ * Generates subclass proxies of types mocked in compiled tests at build time,
+ * so that they are loaded from the classpath instead of being built when tests run.
+ *
+ * Usage: `PrebuiltProxyGenerator <output dir> <test classes dir>...`
+ * run with the test runtime classpath. The output directory is then added to the test runtime classpath.
+ *
+ * Only interfaces and abstract classes get proxies, as other classes are mocked by inlining.
+ * Types from signed jars or sealed packages are skipped, as a proxy can't be added to their package.
+ * Proxies with additional interfaces and types not found by [MockTargetScanner] are still built at runtime.
+ */
+object PrebuiltProxyGenerator {
+    @JvmStatic
+    fun main(args: Array<String>) {
+        if (args.size < 2) {
+            System.err.println("Usage: PrebuiltProxyGenerator <output dir> <test classes dir>...")
+            exitProcess(1)
+        }
+
+        val outputDir = File(args[0])
+        val proxied =
+            generate(
+                outputDir,
+                args.drop(1).map { File(it) },
+                Thread.currentThread().contextClassLoader,
+            )
+        println("Generated ${proxied.size} MockK proxies in $outputDir")
+    }
+
+    internal fun generate(
+        outputDir: File,
+        classDirs: List<File>,
+        classLoader: ClassLoader,
+    ): List<Class<*>> {
+        val byteBuddy = ByteBuddy().with(TypeValidation.DISABLED)
+
+        val targets =
+            classDirs
+                .flatMap { dir ->
+                    dir
+                        .walk()
+                        .filter { it.isFile && it.name.endsWith(".class") }
+                        .flatMap { MockTargetScanner.scan(it.readBytes()) }
+                        .toList()
+                }.toSortedSet()
+
+        return targets
+            .mapNotNull { load(it, classLoader) }
+            .filter { needsProxy(it) }
+            .filter { clazz ->
+                try {
+                    SubclassInstrumentation
+                        .makeProxy(byteBuddy, clazz, emptyArray(), prebuilt = true)
+                        .saveIn(outputDir)
+                    true
+                } catch (ex: Exception) {
+                    System.err.println("Failed to generate MockK proxy for $clazz: $ex")
+                    false
+                }
+            }
+    }
+
+    private fun load(
+        name: String,
+        classLoader: ClassLoader,
+    ): Class<*>? =
+        try {
+            Class.forName(name, false, classLoader)
+        } catch (ex: ClassNotFoundException) {
+            null
+        } catch (ex: LinkageError) {
+            null
+        }
+
+    private fun needsProxy(clazz: Class<*>): Boolean =
+        Modifier.isAbstract(clazz.modifiers) &&
+            !Modifier.isFinal(clazz.modifiers) &&
+            !clazz.isAnnotation &&
+            !clazz.isArray &&
+            !clazz.isPrimitive &&
+            !clazz.kotlin.isSealed &&
+            !isSignedOrSealed(clazz)
+
+    // A proxy put next to these types would fail to load with a SecurityException
+    private fun isSignedOrSealed(clazz: Class<*>): Boolean =
+        !clazz.signers.isNullOrEmpty() ||
+            clazz.`package`?.isSealed == true
+}
@@ -0,0 +1,99 @@
+package io.mockk.proxy.jvm.transformation
+
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+
+/**
+ * Selects the class and ancestors that need inline advice to intercept calls on instances of a class.
+ *
+ * An ancestor is skipped when each method it would get advice on is overridden lower down:
+ * such a method runs only through a super call from the override, which is intercepted already.
+ * Private and final methods can't be overridden, so ancestors declaring them are always kept.
+ *
+ * [Object] is treated specially: only `equals`, `hashCode` and `toString` are considered,
+ * as its remaining methods are native, final or never mocked,
+ * and retransforming it affects every class in the JVM.
+ */
+internal object InlineTransformationTargets {
+    private val objectMethods =
+        listOf(
+            Any::class.java.getMethod("equals", Any::class.java),
+            Any::class.java.getMethod("hashCode"),
+            Any::class.java.getMethod("toString"),
+        )
+
+    fun of(clazz: Class<*>): Set<Class<*>> {
+        val methodCache = mutableMapOf<Class<*>, Array<Method>>()
+        val methodsOf = { cls: Class<*> -> methodCache.getOrPut(cls) { cls.declaredMethods } }
+
+        val classChain = generateSequence(clazz) { it.superclass }.toList()
+        val interfaces = linkedSetOf<Class<*>>()
+        for (cls in classChain) {
+            addInterfaces(interfaces, cls)
+        }
+
+        val result = linkedSetOf<Class<*>>(clazz)
+        for (idx in 1 until classChain.size) {
+            val ancestor = classChain[idx]
+            if (hasMethodNotOverridden(ancestor, classChain.subList(0, idx), methodsOf)) {
+                result.add(ancestor)
+            }
+        }
+        for (intf in interfaces) {
+            val lowerTypes = classChain + interfaces.filter { it != intf && intf.isAssignableFrom(it) }
+            if (hasMethodNotOverridden(intf, lowerTypes, methodsOf)) {
+                result.add(intf)
+            }
+        }
+        return result
+    }
+
+    private fun hasMethodNotOverridden(
+        ancestor: Class<*>,
+        lowerTypes: List<Class<*>>,
+        methodsOf: (Class<*>) -> Array<Method>,
+    ): Boolean {
+        val methods =
+            if (ancestor == Any::class.java) {
+                objectMethods
+            } else {
+                methodsOf(ancestor).filter { it.hasBody() }
+            }
+
+        return methods.any { method ->
+            lowerTypes.none { type ->
+                methodsOf(type).any { it.overrides(method) }
+            }
+        }
+    }
+
+    private fun Method.hasBody(): Boolean =
+        !Modifier.isStatic(modifiers) && !Modifier.isAbstract(modifiers) && !Modifier.isNative(modifiers)
+
+    private fun Method.overrides(method: Method): Boolean {
+        val modifiers = method.modifiers
+        if (Modifier.isPrivate(modifiers) || Modifier.isFinal(modifiers)) {
+            return false
+        }
+        if (!hasBody() || name != method.name || !parameterTypes.contentEquals(method.parameterTypes)) {
+            return false
+        }
+        val packagePrivate = !Modifier.isPublic(modifiers) && !Modifier.isProtected(modifiers)
+        return !packagePrivate || declaringClass.isInSamePackage(method.declaringClass)
+    }
+
+    private fun Class<*>.isInSamePackage(other: Class<*>) =
+        classLoader == other.classLoader &&
+            name.substringBeforeLast('.', "") == other.name.substringBeforeLast('.', "")
+
+    private fun addInterfaces(
+        result: MutableSet<Class<*>>,
+        clazz: Class<*>,
+    ) {
+        for (intf in clazz.interfaces) {
+            if (result.add(intf)) {
+                addInterfaces(result, intf)
+            }
+        }
+    }
+}
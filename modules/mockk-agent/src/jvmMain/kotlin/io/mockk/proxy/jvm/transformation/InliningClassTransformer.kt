@@ -1,6 +1,7 @@
 package io.mockk.proxy.jvm.transformation
 
 import io.mockk.proxy.MockKAgentLogger
+import io.mockk.proxy.common.transformation.ClassTransformationSpec
 import io.mockk.proxy.common.transformation.ClassTransformationSpecMap
 import io.mockk.proxy.jvm.advice.ProxyAdviceId
 import io.mockk.proxy.jvm.advice.jvm.JvmMockKConstructorProxyAdvice
@@ -32,6 +33,9 @@
 import java.io.File
 import java.lang.instrument.ClassFileTransformer
 import java.security.ProtectionDomain
+import java.util.Collections
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.atomic.AtomicLong
 
 internal class InliningClassTransformer(
@@ -41,6 +45,7 @@ internal class InliningClassTransformer(
     private val staticHandlers: MockHandlerMap,
     private val constructorHandlers: MockHandlerMap,
     private val byteBuddy: ByteBuddy,
+    private val cache: TransformedClassCache?,
 ) : ClassFileTransformer {
     private val restrictedMethods =
         setOf(
@@ -52,6 +57,11 @@ internal class InliningClassTransformer(
     private lateinit var staticHashMapAdvice: JvmMockKHashMapStaticProxyAdvice
     private lateinit var constructorAdvice: JvmMockKConstructorProxyAdvice
 
+    private val precomputedTypes = ConcurrentHashMap<Class<*>, PrecomputedType>()
+
+    // Class files the JVM passed when a class was last retransformed
+    private val jvmClassFiles = Collections.synchronizedMap(WeakHashMap<Class<*>, ByteArray>())
+
     init {
         class AdviceBuilder {
             fun build() {
@@ -84,39 +94,125 @@ override fun transform(
             specMap[classBeingRedefined]
                 ?: return classfileBuffer
 
-        try {
-            val builder =
-                byteBuddy
-                    // Work around for https://bugs.openjdk.org/browse/JDK-8136614
-                    .with(VisibilityBridgeStrategy { not(isDefaultMethod()).matches(it) })
-                    .redefine(classBeingRedefined, of(classBeingRedefined.name, classfileBuffer))
-                    .visit(FixParameterNamesVisitor(classBeingRedefined))
-
-            val type =
-                builder
-                    .run { if (spec.shouldDoSimpleIntercept) visit(simpleAdvice()) else this }
-                    .run { if (spec.shouldDoStaticIntercept) visit(staticAdvice(className)) else this }
-                    .run { if (spec.shouldDoConstructorIntercept) visit(constructorAdvice()) else this }
-                    .make()
+        jvmClassFiles[classBeingRedefined] = classfileBuffer
 
-            try {
-                val property = System.getProperty("io.mockk.classdump.path")
-                if (property != null) {
-                    val nextIndex = classDumpIndex.incrementAndGet().toString()
-                    val storePath = File(File(property, "inline"), nextIndex)
-                    type.saveIn(storePath)
-                }
-            } catch (ex: Exception) {
-                log.trace(ex, "Failed to save file to a dump")
-            }
+        val precomputed = precomputedTypes.remove(classBeingRedefined)
+        if (precomputed != null && precomputed.matches(spec, classfileBuffer)) {
+            log.trace("Using precomputed transformation of $className")
+            return precomputed.bytes
+        }
 
-            return type.bytes
+        try {
+            return transformedBytes(classBeingRedefined, className, spec, classfileBuffer)
         } catch (e: Throwable) {
             log.warn(e, "Failed to transform class $className")
             return null
         }
     }
 
+    /**
+     * Transforms [classes] in parallel ahead of their retransformation,
+     * so the JVM callback only has to return the precomputed bytes.
+     *
+     * The JVM passes a class file it reconstitutes for classes loaded before the agent was attached,
+     * which differs from the class loader resource. So only classes retransformed before are precomputed,
+     * starting from the class file the JVM passed then.
+     * A class is transformed in the callback as usual if its bytes or spec differ from the precomputed ones,
+     * e.g. when another agent changed the class file.
+     */
+    fun precompute(classes: Collection<Class<*>>) {
+        if (classes.size < 2) {
+            return
+        }
+
+        classes.parallelStream().forEach { cls ->
+            val spec = specMap[cls]?.takeIf { it.shouldDoSomething } ?: return@forEach
+            try {
+                val original = jvmClassFiles[cls] ?: return@forEach
+                val className = cls.name.replace('.', '/')
+                val bytes = transformedBytes(cls, className, spec, original)
+                precomputedTypes[cls] = PrecomputedType(spec, original, bytes)
+            } catch (e: Exception) {
+                log.trace(e, "Failed to precompute transformation of $cls")
+            }
+        }
+    }
+
+    fun discardPrecomputed(classes: Collection<Class<*>>) {
+        for (cls in classes) {
+            precomputedTypes.remove(cls)
+        }
+    }
+
+    private fun transformedBytes(
+        cls: Class<*>,
+        className: String,
+        spec: ClassTransformationSpec,
+        classfileBuffer: ByteArray,
+    ): ByteArray {
+        if (cache == null) {
+            return makeTransformedBytes(cls, className, spec, classfileBuffer)
+        }
+
+        // Advice ids are baked into the bytecode, so they are part of the variant
+        val variant =
+            listOf(
+                className,
+                if (spec.shouldDoSimpleIntercept) advice.id else "",
+                if (spec.shouldDoStaticIntercept) staticProxyAdviceId(className) else "",
+                if (spec.shouldDoConstructorIntercept) constructorAdvice.id else "",
+            ).joinToString("|")
+
+        return cache.getOrPut(classfileBuffer, variant) {
+            makeTransformedBytes(cls, className, spec, classfileBuffer)
+        }
+    }
+
+    private fun makeTransformedBytes(
+        cls: Class<*>,
+        className: String,
+        spec: ClassTransformationSpec,
+        classfileBuffer: ByteArray,
+    ): ByteArray {
+        val builder =
+            byteBuddy
+                // Work around for https://bugs.openjdk.org/browse/JDK-8136614
+                .with(VisibilityBridgeStrategy { not(isDefaultMethod()).matches(it) })
+                .redefine(cls, of(cls.name, classfileBuffer))
+                .visit(FixParameterNamesVisitor(cls))
+
+        val type =
+            builder
+                .run { if (spec.shouldDoSimpleIntercept) visit(simpleAdvice()) else this }
+                .run { if (spec.shouldDoStaticIntercept) visit(staticAdvice(className)) else this }
+                .run { if (spec.shouldDoConstructorIntercept) visit(constructorAdvice()) else this }
+                .make()
+
+        try {
+            val property = System.getProperty("io.mockk.classdump.path")
+            if (property != null) {
+                val nextIndex = classDumpIndex.incrementAndGet().toString()
+                val storePath = File(File(property, "inline"), nextIndex)
+                type.saveIn(storePath)
+            }
+        } catch (ex: Exception) {
+            log.trace(ex, "Failed to save file to a dump")
+        }
+
+        return type.bytes
+    }
+
+    private class PrecomputedType(
+        private val spec: ClassTransformationSpec,
+        private val original: ByteArray,
+        val bytes: ByteArray,
+    ) {
+        fun matches(
+            spec: ClassTransformationSpec,
+            classfileBuffer: ByteArray,
+        ) = this.spec sameTransforms spec && original.contentEquals(classfileBuffer)
+    }
+
     @Suppress("RemoveExplicitTypeArguments")
     private fun simpleAdvice() =
         Advice
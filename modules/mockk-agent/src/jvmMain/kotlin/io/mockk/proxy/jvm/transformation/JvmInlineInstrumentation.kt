@@ -9,6 +9,7 @@ internal class JvmInlineInstrumentation(
     log: MockKAgentLogger,
     specMap: ClassTransformationSpecMap,
     private val instrumentation: Instrumentation,
+    private val transformer: InliningClassTransformer,
 ) : RetransformInlineInstrumentation(log, specMap) {
     override fun retransform(classesToTransform: Collection<Class<*>>) {
         val classesAbleTransform =
@@ -26,7 +27,13 @@ override fun retransform(classesToTransform: Collection<Class<*>>) {
 
         if (classesAbleTransform.isNotEmpty()) {
             log.trace("Retransforming classes ${classesAbleTransform.joinToString { it.name }}")
-            instrumentation.retransformClasses(*classesAbleTransform)
+            val classList = classesAbleTransform.asList()
+            transformer.precompute(classList)
+            try {
+                instrumentation.retransformClasses(*classesAbleTransform)
+            } finally {
+                transformer.discardPrecomputed(classList)
+            }
         }
     }
 }
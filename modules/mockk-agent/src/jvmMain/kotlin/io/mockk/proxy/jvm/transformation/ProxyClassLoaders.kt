@@ -0,0 +1,64 @@
+package io.mockk.proxy.jvm.transformation
+
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerInterceptor
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader
+import net.bytebuddy.dynamic.loading.ClassInjector
+import net.bytebuddy.dynamic.loading.MultipleParentClassLoader
+import java.lang.ref.WeakReference
+
+/**
+ * Class loaders for proxies that can't be defined next to the proxied class,
+ * shared by all proxies seeing the same parent class loaders instead of creating loaders per proxy.
+ *
+ * If one of the parents sees all others, proxies are injected into it when reflection allows.
+ * Otherwise they get a shared child loader, which proxies are defined in with
+ * [net.bytebuddy.dynamic.loading.InjectionClassLoader.Strategy].
+ *
+ * Entries only hold weak references, so a child loader goes away with the last proxy class defined in it,
+ * and parent class loaders are never kept alive.
+ */
+internal class ProxyClassLoaders {
+    private val entries = mutableListOf<Entry>()
+
+    @Synchronized
+    fun loaderFor(parents: List<ClassLoader?>): ClassLoader {
+        entries.removeAll { it.isCleared() }
+
+        for (entry in entries) {
+            val loader = entry.loader.get()
+            if (loader != null && entry.matches(parents)) {
+                return loader
+            }
+        }
+
+        val loader = create(parents)
+        entries.add(Entry(parents, loader))
+        return loader
+    }
+
+    private fun create(parents: List<ClassLoader?>): ClassLoader {
+        val loader =
+            MultipleParentClassLoader
+                .Builder(false)
+                .append(parents.filterNotNull())
+                .build(JvmMockKProxyHandlerInterceptor::class.java.classLoader)
+
+        return if (loader is MultipleParentClassLoader || ClassInjector.UsingReflection.isAvailable()) {
+            loader
+        } else {
+            ByteArrayClassLoader(loader, false, emptyMap())
+        }
+    }
+
+    private class Entry(
+        parents: List<ClassLoader?>,
+        loader: ClassLoader,
+    ) {
+        private val parents = parents.map { it?.let(::WeakReference) }
+        val loader = WeakReference(loader)
+
+        fun matches(other: List<ClassLoader?>) = parents.size == other.size && parents.indices.all { parents[it]?.get() === other[it] }
+
+        fun isCleared() = loader.get() == null || parents.any { it != null && it.get() == null }
+    }
+}
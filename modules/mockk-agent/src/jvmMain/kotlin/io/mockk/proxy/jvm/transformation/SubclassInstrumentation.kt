@@ -1,41 +1,38 @@
 package io.mockk.proxy.jvm.transformation
 
 import io.mockk.proxy.MockKAgentLogger
+import io.mockk.proxy.MockKInvocationHandler
 import io.mockk.proxy.jvm.ClassLoadingStrategyChooser
-import io.mockk.proxy.jvm.advice.ProxyAdviceId
-import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyInterceptor
-import io.mockk.proxy.jvm.advice.jvm.MockHandlerMap
-import io.mockk.proxy.jvm.dispatcher.JvmMockKDispatcher
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerHolder
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerInterceptor
+import io.mockk.proxy.jvm.prebuilt.PrebuiltProxies
 import net.bytebuddy.ByteBuddy
 import net.bytebuddy.TypeCache
-import net.bytebuddy.dynamic.loading.MultipleParentClassLoader
+import net.bytebuddy.description.modifier.FieldManifestation
+import net.bytebuddy.description.modifier.FieldPersistence
+import net.bytebuddy.description.modifier.Ownership
+import net.bytebuddy.description.modifier.Visibility
+import net.bytebuddy.dynamic.DynamicType
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy
+import net.bytebuddy.dynamic.loading.InjectionClassLoader
+import net.bytebuddy.implementation.FieldAccessor
 import net.bytebuddy.implementation.MethodDelegation
 import net.bytebuddy.implementation.attribute.MethodAttributeAppender
-import net.bytebuddy.implementation.bind.annotation.TargetMethodAnnotationDrivenBinder
 import net.bytebuddy.matcher.ElementMatchers.any
 import java.io.File
 import java.lang.Thread.currentThread
 import java.util.concurrent.atomic.AtomicLong
 
+/**
+ * Builds subclass proxies, which hold their handler and call it through [JvmMockKProxyHandlerInterceptor].
+ */
 internal class SubclassInstrumentation(
     private val log: MockKAgentLogger,
-    private val handlers: MockHandlerMap,
     private val byteBuddy: ByteBuddy,
 ) {
     private val bootstrapMonitor = Any()
     private val proxyClassCache = TypeCache<CacheKey>(TypeCache.Sort.WEAK)
-    private lateinit var interceptor: JvmMockKProxyInterceptor
-
-    init {
-        class AdviceBuilder {
-            fun build() {
-                interceptor = JvmMockKProxyInterceptor(handlers)
-
-                JvmMockKDispatcher.set(interceptor.id, interceptor)
-            }
-        }
-        AdviceBuilder().build()
-    }
+    private val proxyClassLoaders = ProxyClassLoaders()
 
     @Suppress("UNCHECKED_CAST")
     fun <T> subclass(
@@ -49,7 +46,7 @@ fun <T> subclass(
         return proxyClassCache.findOrInsert(
             classLoader,
             key,
-            { doInterceptedSubclassing(clazz, interfaces) },
+            { loadPrebuilt(clazz, interfaces) ?: doInterceptedSubclassing(clazz, interfaces) },
             monitor,
         ) as Class<T>
     }
@@ -58,34 +55,7 @@ private fun <T> doInterceptedSubclassing(
         clazz: Class<T>,
         interfaces: Array<Class<*>>,
     ): Class<out T> {
-        val resultClassLoader =
-            MultipleParentClassLoader
-                .Builder()
-                .append(clazz)
-                .append(*interfaces)
-                .append(currentThread().contextClassLoader)
-                .append(JvmMockKProxyInterceptor::class.java)
-                .build(JvmMockKProxyInterceptor::class.java.classLoader)
-
-        val interceptor =
-            MethodDelegation
-                .withDefaultConfiguration()
-                .withBinders(
-                    TargetMethodAnnotationDrivenBinder.ParameterBinder.ForFixedValue.OfConstant.of(
-                        ProxyAdviceId::class.java,
-                        interceptor.id,
-                    ),
-                ).to(JvmMockKProxyInterceptor::class.java)
-
-        val type =
-            byteBuddy
-                .subclass(clazz)
-                .implement(*interfaces)
-                .annotateType(*clazz.annotations)
-                .method(any<Any>())
-                .intercept(interceptor)
-                .attribute(MethodAttributeAppender.ForInstrumentedMethod.INCLUDING_RECEIVER)
-                .make()
+        val type = makeProxy(byteBuddy, clazz, interfaces)
 
         try {
             val property = System.getProperty("io.mockk.classdump.path")
@@ -98,14 +68,118 @@ private fun <T> doInterceptedSubclassing(
             log.trace(ex, "Failed to save file to a dump")
         }
 
-        return type
-            .load(resultClassLoader, chooseClassLoadingStrategy(clazz))
-            .loaded
+        val strategy = chooseClassLoadingStrategy(clazz)
+        if (strategy is ClassLoadingStrategy.UsingLookup) {
+            // defined next to the proxied class, no class loader needed
+            return type.load(clazz.classLoader, strategy).loaded
+        }
+
+        val parents =
+            (listOf(clazz.classLoader) + interfaces.map { it.classLoader })
+                .plus(currentThread().contextClassLoader)
+                .plus(JvmMockKProxyHandlerInterceptor::class.java.classLoader)
+                .distinct()
+
+        val loader = proxyClassLoaders.loaderFor(parents)
+        return if (loader is InjectionClassLoader && !loader.isSealed) {
+            type.load(loader, InjectionClassLoader.Strategy.INSTANCE).loaded
+        } else {
+            type.load(loader, strategy).loaded
+        }
+    }
+
+    /**
+     * Looks up a proxy emitted by the build-time generator on the classpath,
+     * skipping it if it doesn't match the proxied types anymore.
+     */
+    private fun <T> loadPrebuilt(
+        clazz: Class<T>,
+        interfaces: Array<Class<*>>,
+    ): Class<out T>? {
+        val name = PrebuiltProxies.name(clazz, interfaces)
+        val proxyClass =
+            try {
+                Class.forName(name, false, clazz.classLoader ?: currentThread().contextClassLoader)
+            } catch (ex: ClassNotFoundException) {
+                return null
+            } catch (ex: LinkageError) {
+                log.trace(ex, "Failed to load prebuilt proxy $name")
+                return null
+            } catch (ex: SecurityException) {
+                // a proxy in a signed or sealed package of the proxied type can't be defined there
+                log.trace(ex, "Failed to load prebuilt proxy $name")
+                return null
+            }
+
+        val matches =
+            try {
+                clazz.isAssignableFrom(proxyClass) &&
+                    interfaces.all { it.isAssignableFrom(proxyClass) } &&
+                    JvmMockKProxyHandlerHolder::class.java.isAssignableFrom(proxyClass) &&
+                    proxyClass.getField(PrebuiltProxies.SIGNATURE_FIELD).get(null) ==
+                    PrebuiltProxies.signature(clazz, interfaces)
+            } catch (ex: Exception) {
+                log.trace(ex, "Failed to check prebuilt proxy $name")
+                false
+            }
+
+        if (!matches) {
+            log.debug("Prebuilt proxy $name is outdated, building $clazz proxy at runtime")
+            return null
+        }
+
+        log.trace("Using prebuilt proxy $name for $clazz")
+        @Suppress("UNCHECKED_CAST")
+        return proxyClass as Class<out T>
     }
 
     private fun <T> chooseClassLoadingStrategy(clazz: Class<T>) = ClassLoadingStrategyChooser.chooseClassLoadingStrategy(clazz)
 
     companion object {
         val classDumpIndex = AtomicLong()
+
+        /**
+         * [prebuilt] proxies get a fixed name and record the signature of proxied types.
+         */
+        fun <T> makeProxy(
+            byteBuddy: ByteBuddy,
+            clazz: Class<T>,
+            interfaces: Array<Class<*>>,
+            prebuilt: Boolean = false,
+        ): DynamicType.Unloaded<T> {
+            val interceptor = MethodDelegation.to(JvmMockKProxyHandlerInterceptor::class.java)
+
+            var builder: DynamicType.Builder<T> =
+                byteBuddy
+                    .subclass(clazz)
+                    .implement(*interfaces)
+                    .annotateType(*clazz.annotations)
+                    .method(any<Any>())
+                    .intercept(interceptor)
+                    .attribute(MethodAttributeAppender.ForInstrumentedMethod.INCLUDING_RECEIVER)
+                    .defineField(
+                        JvmMockKProxyHandlerHolder.HANDLER_FIELD,
+                        MockKInvocationHandler::class.java,
+                        Visibility.PRIVATE,
+                        FieldPersistence.TRANSIENT,
+                        FieldManifestation.VOLATILE,
+                    ).implement(JvmMockKProxyHandlerHolder::class.java)
+                    .intercept(FieldAccessor.ofField(JvmMockKProxyHandlerHolder.HANDLER_FIELD))
+
+            if (prebuilt) {
+                builder =
+                    builder
+                        .name(PrebuiltProxies.name(clazz, interfaces))
+                        .defineField(
+                            PrebuiltProxies.SIGNATURE_FIELD,
+                            String::class.java,
+                            Visibility.PUBLIC,
+                            Ownership.STATIC,
+                            FieldManifestation.FINAL,
+                        ).value(PrebuiltProxies.signature(clazz, interfaces))
+            }
+
+            return builder.make()
+        }
     }
 }
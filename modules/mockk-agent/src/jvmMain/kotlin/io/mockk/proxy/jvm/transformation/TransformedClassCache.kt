@@ -0,0 +1,138 @@
+package io.mockk.proxy.jvm.transformation
+
+import io.mockk.proxy.MockKAgentLogger
+import net.bytebuddy.ByteBuddy
+import java.io.File
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.security.MessageDigest
+
+/**
+ * Directory of transformed class files shared by JVMs, so the same transformation is done once.
+ *
+ * Entries are named by a hash of the original class bytes, the transformation variant
+ * and the [version] of the code producing them, so they never need to be invalidated.
+ * Files are written to a temporary name and renamed, so readers see either a complete file or none.
+ */
+internal class TransformedClassCache(
+    private val log: MockKAgentLogger,
+    private val directory: File,
+    private val version: String,
+) {
+    fun getOrPut(
+        original: ByteArray,
+        variant: String,
+        transform: () -> ByteArray,
+    ): ByteArray {
+        val file = fileFor(original, variant)
+
+        val cached = read(file)
+        if (cached != null) {
+            return cached
+        }
+
+        val bytes = transform()
+        write(file, bytes)
+        return bytes
+    }
+
+    private fun fileFor(
+        original: ByteArray,
+        variant: String,
+    ): File {
+        val digest = MessageDigest.getInstance("SHA-256")
+        digest.update(version.toByteArray())
+        digest.update(0)
+        digest.update(variant.toByteArray())
+        digest.update(0)
+        digest.update(original)
+
+        val key = digest.digest().toHex()
+        return File(File(directory, key.substring(0, 2)), "$key.class")
+    }
+
+    private fun read(file: File): ByteArray? =
+        try {
+            if (file.isFile) file.readBytes().takeIf { it.isNotEmpty() } else null
+        } catch (ex: Exception) {
+            log.trace(ex, "Failed to read cached class $file")
+            null
+        }
+
+    private fun write(
+        file: File,
+        bytes: ByteArray,
+    ) {
+        try {
+            val dir = file.parentFile.toPath()
+            Files.createDirectories(dir)
+            val tmp = Files.createTempFile(dir, file.name, ".tmp")
+            try {
+                Files.write(tmp, bytes)
+                try {
+                    Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE)
+                } catch (ex: AtomicMoveNotSupportedException) {
+                    Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+                }
+            } finally {
+                Files.deleteIfExists(tmp)
+            }
+        } catch (ex: Exception) {
+            log.trace(ex, "Failed to write cached class $file")
+        }
+    }
+
+    companion object {
+        const val PATH_PROPERTY = "io.mockk.transform.cache.path"
+
+        /**
+         * Creates the cache if [PATH_PROPERTY] is set.
+         * [producers] are the classes whose code ends up in transformed classes, their bytes are part of the version.
+         */
+        fun fromSystemProperty(
+            log: MockKAgentLogger,
+            producers: List<Class<*>>,
+        ): TransformedClassCache? {
+            val path = System.getProperty(PATH_PROPERTY) ?: return null
+            return try {
+                TransformedClassCache(log, File(path), version(producers))
+            } catch (ex: Exception) {
+                log.warn(ex, "Failed to set up transformed class cache in $path, caching is disabled")
+                null
+            }
+        }
+
+        private fun version(producers: List<Class<*>>): String {
+            val digest = MessageDigest.getInstance("SHA-256")
+            for (cls in producers) {
+                val resource = cls.name.replace('.', '/') + ".class"
+                val bytes =
+                    cls.classLoader
+                        .getResourceAsStream(resource)
+                        ?.use { it.readBytes() }
+                        ?: throw IllegalStateException("Class file of $cls not found")
+                digest.update(bytes)
+            }
+
+            val byteBuddy = ByteBuddy::class.java
+            return listOf(
+                System.getProperty("java.version"),
+                byteBuddy.`package`?.implementationVersion,
+                byteBuddy.protectionDomain?.codeSource?.location,
+                digest.digest().toHex(),
+            ).joinToString("|")
+        }
+
+        private fun ByteArray.toHex(): String {
+            val hex = "0123456789abcdef"
+            val sb = StringBuilder(size * 2)
+            for (b in this) {
+                val v = b.toInt() and 0xFF
+                sb.append(hex[v ushr 4])
+                sb.append(hex[v and 0x0F])
+            }
+            return sb.toString()
+        }
+    }
+}
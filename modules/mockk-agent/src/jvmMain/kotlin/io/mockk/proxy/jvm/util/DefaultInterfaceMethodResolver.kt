@@ -3,20 +3,33 @@
 import io.mockk.proxy.jvm.advice.MethodCall
 import java.lang.reflect.Method
 import java.lang.reflect.Modifier
+import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 
 class DefaultInterfaceMethodResolver {
     companion object {
+        private val defaultImplMethods =
+            object : ClassValue<ConcurrentHashMap<Method, Optional<Method>>>() {
+                override fun computeValue(type: Class<*>) = ConcurrentHashMap<Method, Optional<Method>>()
+            }
+
         internal fun getDefaultImplementationOrNull(
             mock: Any,
             method: Method,
             arguments: Array<Any?>,
         ): MethodCall? =
-            findDefaultImplMethod(method)
+            cachedDefaultImplMethod(method)
                 ?.let {
                     val defaultImplMethodArguments = arrayOf(mock, *arguments)
                     MethodCall(mock, it, defaultImplMethodArguments)
                 }
 
+        private fun cachedDefaultImplMethod(method: Method): Method? =
+            defaultImplMethods
+                .get(method.declaringClass)
+                .computeIfAbsent(method) { Optional.ofNullable(findDefaultImplMethod(it)) }
+                .orElse(null)
+
         private fun findDefaultImplMethod(method: Method): Method? =
             method
                 .takeIf { Modifier.isAbstract(it.modifiers) }
@@ -0,0 +1,7 @@
+package io.mockk.impl.annotations
+
+/**
+ * Stands in for the annotation declared by the mockk module, which depends on this one,
+ * so fixtures compile to the same bytecode as annotated properties in real tests.
+ */
+annotation class MockK
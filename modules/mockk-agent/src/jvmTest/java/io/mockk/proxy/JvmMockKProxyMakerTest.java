@@ -14,6 +14,7 @@
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,6 +108,16 @@ public void finalClassProxy() {
         checkProxyHandlerCalled(1, proxy, "a");
     }
 
+    @Test
+    public void finalClassInstanceNextToProxy() {
+        makeProxy(B.class);
+
+        new B().a();
+
+        assertTrue(executed[0]);
+        assertTrue(handler.calls.isEmpty());
+    }
+
     @Test
     public void finalClassCallOriginalProxy() {
         handler.callOriginal = true;
@@ -132,6 +143,18 @@ public void interfaceProxy() {
         checkProxyHandlerCalled(1, proxy, "a");
     }
 
+    @Test
+    public void cancelledInterfaceProxy() {
+        Cancelable<C> cancelableProxy = makeCancelableProxy(C.class);
+        C proxy = cancelableProxy.get();
+
+        proxy.a();
+        cancelableProxy.cancel();
+        proxy.a();
+
+        checkProxyHandlerCalled(1, proxy, "a");
+    }
+
     static abstract class D {
         abstract void a();
     }
@@ -431,6 +454,25 @@ public void classImplementingPackagePrivateInterfaceWithDefaultMethodProxy() {
         checkProxyHandlerCalled(1, proxy, "foo", 1, 1);
     }
 
+    @Test
+    public void atomicReferenceArrayProxyNextToInlineMock() {
+        A proxy = makeProxy(A.class);
+        Cancelable<AtomicReferenceArray> arrayProxy = makeCancelableProxy(AtomicReferenceArray.class);
+        try {
+            arrayProxy.get().set(0, "mocked");
+            assertNull(new AtomicReferenceArray<>(1).get(0));
+
+            proxy.a();
+
+            assertFalse(executed[0]);
+            assertEquals(2, handler.calls.size());
+            assertSame(arrayProxy.get(), handler.calls.get(0).self);
+            assertSame(proxy, handler.calls.get(1).self);
+        } finally {
+            arrayProxy.cancel();
+        }
+    }
+
     private void checkProxyHandlerCalled(int nTimes, Object proxy, String methodName) {
         checkProxyHandlerCalled(nTimes, proxy, methodName, 0, 0);
     }
@@ -0,0 +1,65 @@
+package io.mockk.proxy.advice
+
+import io.mockk.proxy.jvm.advice.MethodInvoker
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class MethodInvokerTest {
+    private val target = Target()
+
+    @Test
+    fun `invokes private method with primitive and object arguments`() {
+        val method = Target::class.java.getDeclaredMethod("concat", Int::class.java, String::class.java)
+
+        assertEquals("a1", MethodInvoker.forMethod(method).invoke(target, arrayOf(1, "a")))
+    }
+
+    @Test
+    fun `returns null for void method`() {
+        val method = Target::class.java.getDeclaredMethod("doNothing")
+
+        assertNull(MethodInvoker.forMethod(method).invoke(target, arrayOf()))
+    }
+
+    @Test
+    fun `invokes static method ignoring receiver`() {
+        val method = Target::class.java.getDeclaredMethod("twice", Int::class.java)
+
+        assertEquals(42, MethodInvoker.forMethod(method).invoke(target, arrayOf(21)))
+    }
+
+    @Test
+    fun `throws exception of the method without wrapping`() {
+        val method = Target::class.java.getDeclaredMethod("fail")
+
+        assertThrows<IllegalStateException> {
+            MethodInvoker.forMethod(method).invoke(target, arrayOf())
+        }
+    }
+
+    @Test
+    fun `caches invoker per method`() {
+        val method = Target::class.java.getDeclaredMethod("doNothing")
+
+        assertSame(MethodInvoker.forMethod(method), MethodInvoker.forMethod(method))
+    }
+
+    class Target {
+        private fun concat(
+            a: Int,
+            b: String,
+        ) = "$b$a"
+
+        fun doNothing() {}
+
+        fun fail(): Nothing = throw IllegalStateException("fail")
+
+        companion object {
+            @JvmStatic
+            fun twice(a: Int) = a * 2
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.mockk.proxy.dispatcher
+
+import io.mockk.proxy.jvm.dispatcher.JvmMockKLiveMocks
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+class JvmMockKLiveMocksTest {
+    @Test
+    fun `class has live mocks until all its mocks are cancelled`() {
+        assertFalse(JvmMockKLiveMocks.hasLiveMocks(Mocked::class.java))
+
+        JvmMockKLiveMocks.mockCreated(Mocked::class.java)
+        JvmMockKLiveMocks.mockCreated(Mocked::class.java)
+        assertTrue(JvmMockKLiveMocks.hasLiveMocks(Mocked::class.java))
+
+        JvmMockKLiveMocks.mockCancelled(Mocked::class.java)
+        assertTrue(JvmMockKLiveMocks.hasLiveMocks(Mocked::class.java))
+
+        JvmMockKLiveMocks.mockCancelled(Mocked::class.java)
+        assertFalse(JvmMockKLiveMocks.hasLiveMocks(Mocked::class.java))
+    }
+
+    @Test
+    fun `mocks of other classes do not count`() {
+        JvmMockKLiveMocks.mockCreated(Other::class.java)
+        try {
+            assertFalse(JvmMockKLiveMocks.hasLiveMocks(Mocked::class.java))
+        } finally {
+            JvmMockKLiveMocks.mockCancelled(Other::class.java)
+        }
+    }
+
+    class Mocked
+
+    class Other
+}
@@ -0,0 +1,56 @@
+package io.mockk.proxy.prebuilt
+
+import io.mockk.proxy.jvm.prebuilt.PrebuiltProxies
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Test
+
+class PrebuiltProxiesTest {
+    @Test
+    fun `names proxy after proxied class`() {
+        assertEquals(
+            "${Service::class.java.name}\$MockKProxy",
+            PrebuiltProxies.name(Service::class.java, emptyArray()),
+        )
+    }
+
+    @Test
+    fun `moves proxies of java classes out of java package`() {
+        assertEquals(
+            "io.mockk.renamed.java.lang.Runnable\$MockKProxy",
+            PrebuiltProxies.name(Runnable::class.java, emptyArray()),
+        )
+    }
+
+    @Test
+    fun `names proxy with additional interfaces regardless of their order`() {
+        val name = PrebuiltProxies.name(Service::class.java, arrayOf(Runnable::class.java, AutoCloseable::class.java))
+
+        assertEquals(name, PrebuiltProxies.name(Service::class.java, arrayOf(AutoCloseable::class.java, Runnable::class.java)))
+        assertNotEquals(PrebuiltProxies.name(Service::class.java, emptyArray()), name)
+    }
+
+    @Test
+    fun `signature changes with methods of proxied types`() {
+        assertEquals(
+            PrebuiltProxies.signature(Service::class.java, emptyArray()),
+            PrebuiltProxies.signature(Service::class.java, emptyArray()),
+        )
+        assertNotEquals(
+            PrebuiltProxies.signature(Service::class.java, emptyArray()),
+            PrebuiltProxies.signature(ExtendedService::class.java, emptyArray()),
+        )
+        assertNotEquals(
+            PrebuiltProxies.signature(Service::class.java, emptyArray()),
+            PrebuiltProxies.signature(Service::class.java, arrayOf(Runnable::class.java)),
+        )
+    }
+
+    interface Service {
+        fun call(arg: String): Int
+    }
+
+    interface ExtendedService : Service {
+        fun other()
+    }
+}
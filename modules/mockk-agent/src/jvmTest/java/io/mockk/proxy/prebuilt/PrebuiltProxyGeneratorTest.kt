@@ -0,0 +1,223 @@
+package io.mockk.proxy.prebuilt
+
+import io.mockk.proxy.MockKAgentLogFactory
+import io.mockk.proxy.MockKInvocationHandler
+import io.mockk.proxy.jvm.advice.jvm.JvmMockKProxyHandlerHolder
+import io.mockk.proxy.jvm.prebuilt.MockTargetScanner
+import io.mockk.proxy.jvm.prebuilt.PrebuiltProxies
+import io.mockk.proxy.jvm.prebuilt.PrebuiltProxyGenerator
+import io.mockk.proxy.jvm.transformation.SubclassInstrumentation
+import io.mockk.proxy.prebuilt.fixture.AnnotatedPropertyTest
+import io.mockk.proxy.prebuilt.fixture.AnnotatedService
+import io.mockk.proxy.prebuilt.fixture.InlinedMockkTest
+import io.mockk.proxy.prebuilt.fixture.InlinedService
+import net.bytebuddy.ByteBuddy
+import net.bytebuddy.jar.asm.ClassVisitor
+import net.bytebuddy.jar.asm.ClassWriter
+import net.bytebuddy.jar.asm.FieldVisitor
+import net.bytebuddy.utility.OpenedClassReader
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.lang.reflect.Method
+import java.net.URL
+import java.net.URLClassLoader
+import java.util.concurrent.Callable
+import java.util.jar.Attributes
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+import java.util.jar.Manifest
+
+class PrebuiltProxyGeneratorTest {
+    @TempDir
+    lateinit var classesDir: File
+
+    @TempDir
+    lateinit var proxiesDir: File
+
+    private val log = MockKAgentLogFactory.simpleConsoleLogFactory.logger(PrebuiltProxyGeneratorTest::class.java)
+
+    private val handler =
+        object : MockKInvocationHandler {
+            override fun invocation(
+                self: Any,
+                method: Method?,
+                originalCall: Callable<*>?,
+                args: Array<Any?>,
+            ): Any? = if (method?.name == "call") 5 else null
+        }
+
+    @Test
+    fun `finds types of annotated properties`() {
+        assertEquals(
+            setOf(AnnotatedService::class.java.name),
+            MockTargetScanner.scan(classFile(AnnotatedPropertyTest::class.java)),
+        )
+    }
+
+    @Test
+    fun `finds types passed to inlined mock factory`() {
+        assertEquals(
+            setOf(InlinedService::class.java.name),
+            MockTargetScanner.scan(classFile(InlinedMockkTest::class.java)),
+        )
+    }
+
+    @Test
+    fun `generates proxies of scanned types`() {
+        copyClass(AnnotatedPropertyTest::class.java)
+        copyClass(InlinedMockkTest::class.java)
+
+        val proxied = generate()
+
+        assertEquals(listOf(AnnotatedService::class.java, InlinedService::class.java), proxied)
+        proxied.forEach { assertTrue(proxyFile(it).isFile) }
+    }
+
+    @Test
+    fun `loads generated proxy and uses it as mock`() {
+        copyClass(AnnotatedPropertyTest::class.java)
+        copyClass(AnnotatedService::class.java)
+        generate()
+
+        val service = FixtureClassLoader().loadClass(AnnotatedService::class.java.name)
+        val proxy = SubclassInstrumentation(log, ByteBuddy()).subclass(service, emptyArray())
+
+        assertEquals(PrebuiltProxies.name(service, emptyArray()), proxy.name)
+        assertSame(service.classLoader, proxy.classLoader)
+        assertEquals(5, callThroughMock(service, proxy))
+    }
+
+    @Test
+    fun `builds proxy at runtime when generated one is outdated`() {
+        copyClass(AnnotatedPropertyTest::class.java)
+        copyClass(AnnotatedService::class.java)
+        generate()
+        replaceSignature(proxyFile(AnnotatedService::class.java), "outdated")
+
+        val service = FixtureClassLoader().loadClass(AnnotatedService::class.java.name)
+        val proxy = SubclassInstrumentation(log, ByteBuddy()).subclass(service, emptyArray())
+
+        assertNotEquals(PrebuiltProxies.name(service, emptyArray()), proxy.name)
+        assertEquals(5, callThroughMock(service, proxy))
+    }
+
+    @Test
+    fun `builds proxy at runtime when generated one can't be defined in its package`() {
+        copyClass(AnnotatedPropertyTest::class.java)
+        copyClass(AnnotatedService::class.java)
+        generate()
+
+        val service = FixtureClassLoader(rejectProxies = true).loadClass(AnnotatedService::class.java.name)
+        val proxy = SubclassInstrumentation(log, ByteBuddy()).subclass(service, emptyArray())
+
+        assertNotEquals(PrebuiltProxies.name(service, emptyArray()), proxy.name)
+        assertEquals(5, callThroughMock(service, proxy))
+    }
+
+    @Test
+    fun `skips types of sealed packages`() {
+        copyClass(AnnotatedPropertyTest::class.java)
+        val sealedJar = File(classesDir, "sealed.jar")
+        writeSealedJar(sealedJar, AnnotatedService::class.java)
+
+        val proxied = FixtureClassLoader(arrayOf(sealedJar.toURI().toURL())).use { generate(it) }
+
+        assertEquals(emptyList<Class<*>>(), proxied)
+        assertFalse(proxyFile(AnnotatedService::class.java).exists())
+    }
+
+    private fun generate(classLoader: ClassLoader = javaClass.classLoader) = PrebuiltProxyGenerator.generate(proxiesDir, listOf(classesDir), classLoader)
+
+    private fun callThroughMock(
+        service: Class<*>,
+        proxy: Class<*>,
+    ): Any? {
+        val mock = proxy.getDeclaredConstructor().newInstance() as JvmMockKProxyHandlerHolder
+        mock.mockKProxyHandler = handler
+        return service.getMethod("call", String::class.java).invoke(mock, "arg")
+    }
+
+    private fun classFile(cls: Class<*>): ByteArray = cls.classLoader.getResourceAsStream(resourceName(cls.name))!!.use { it.readBytes() }
+
+    private fun copyClass(cls: Class<*>) {
+        val file = File(classesDir, resourceName(cls.name))
+        file.parentFile.mkdirs()
+        file.writeBytes(classFile(cls))
+    }
+
+    private fun proxyFile(cls: Class<*>) = File(proxiesDir, resourceName(PrebuiltProxies.name(cls, emptyArray())))
+
+    private fun resourceName(className: String) = className.replace('.', '/') + ".class"
+
+    private fun writeSealedJar(
+        jar: File,
+        cls: Class<*>,
+    ) {
+        val manifest = Manifest()
+        manifest.mainAttributes[Attributes.Name.MANIFEST_VERSION] = "1.0"
+        manifest.mainAttributes[Attributes.Name.SEALED] = "true"
+        JarOutputStream(jar.outputStream(), manifest).use {
+            it.putNextEntry(JarEntry(resourceName(cls.name)))
+            it.write(classFile(cls))
+            it.closeEntry()
+        }
+    }
+
+    private fun replaceSignature(
+        file: File,
+        signature: String,
+    ) {
+        val writer = ClassWriter(0)
+        val visitor =
+            object : ClassVisitor(OpenedClassReader.ASM_API, writer) {
+                override fun visitField(
+                    access: Int,
+                    name: String,
+                    descriptor: String,
+                    fieldSignature: String?,
+                    value: Any?,
+                ): FieldVisitor? =
+                    super.visitField(
+                        access,
+                        name,
+                        descriptor,
+                        fieldSignature,
+                        if (name == PrebuiltProxies.SIGNATURE_FIELD) signature else value,
+                    )
+            }
+        OpenedClassReader.of(file.readBytes()).accept(visitor, 0)
+        file.writeBytes(writer.toByteArray())
+    }
+
+    /**
+     * Loads fixtures and their proxies from the temporary directories first,
+     * so the proxied types see generated proxies the way they would on a test classpath.
+     * With [rejectProxies] loading a proxy fails the way it does in a signed or sealed package.
+     */
+    private inner class FixtureClassLoader(
+        urls: Array<URL> = arrayOf(classesDir.toURI().toURL(), proxiesDir.toURI().toURL()),
+        private val rejectProxies: Boolean = false,
+    ) : URLClassLoader(urls, PrebuiltProxyGeneratorTest::class.java.classLoader) {
+        override fun loadClass(
+            name: String,
+            resolve: Boolean,
+        ): Class<*> =
+            synchronized(getClassLoadingLock(name)) {
+                if (rejectProxies && name.contains("\$MockKProxy")) {
+                    throw SecurityException("sealing violation: package is sealed")
+                }
+                findLoadedClass(name)
+                    ?: if (name.startsWith(FIXTURE_PACKAGE)) findClass(name) else super.loadClass(name, resolve)
+            }
+    }
+
+    private companion object {
+        val FIXTURE_PACKAGE = AnnotatedService::class.java.name.substringBeforeLast('.') + "."
+    }
+}
@@ -0,0 +1,21 @@
+package io.mockk.proxy.prebuilt.fixture
+
+import io.mockk.MockKDsl
+import io.mockk.impl.annotations.MockK
+
+interface AnnotatedService {
+    fun call(arg: String): Int
+}
+
+abstract class InlinedService {
+    abstract fun call(arg: String): Int
+}
+
+class AnnotatedPropertyTest {
+    @MockK
+    lateinit var service: AnnotatedService
+}
+
+class InlinedMockkTest {
+    fun service() = MockKDsl.internalMockk<InlinedService>(moreInterfaces = emptyArray())
+}
@@ -0,0 +1,101 @@
+package io.mockk.proxy.transformation
+
+import io.mockk.proxy.jvm.transformation.InlineTransformationTargets
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+class InlineTransformationTargetsTest {
+    @Test
+    fun `skips Object when equals, hashCode and toString are overridden`() {
+        assertEquals(setOf(Data::class.java), InlineTransformationTargets.of(Data::class.java))
+    }
+
+    @Test
+    fun `keeps Object when one of its methods is inherited`() {
+        assertEquals(setOf(Plain::class.java, Any::class.java), InlineTransformationTargets.of(Plain::class.java))
+    }
+
+    @Test
+    fun `skips ancestor whose methods are all overridden`() {
+        assertEquals(
+            setOf(AllOverridden::class.java),
+            InlineTransformationTargets.of(AllOverridden::class.java),
+        )
+    }
+
+    @Test
+    fun `keeps ancestor with final methods`() {
+        assertEquals(
+            setOf(WithFinalBase::class.java, FinalBase::class.java),
+            InlineTransformationTargets.of(WithFinalBase::class.java),
+        )
+    }
+
+    @Test
+    fun `skips interface with overridden default methods`() {
+        assertEquals(
+            setOf(OverridesDefault::class.java),
+            InlineTransformationTargets.of(OverridesDefault::class.java),
+        )
+    }
+
+    data class Data(
+        val value: Int,
+    )
+
+    class Plain {
+        override fun toString() = "plain"
+    }
+
+    open class OpenBase {
+        open fun op() = 1
+
+        override fun equals(other: Any?) = other === this
+
+        override fun hashCode() = 1
+
+        override fun toString() = "base"
+    }
+
+    class AllOverridden : OpenBase() {
+        override fun op() = 2
+
+        override fun equals(other: Any?) = other === this
+
+        override fun hashCode() = 2
+
+        override fun toString() = "all"
+    }
+
+    open class FinalBase {
+        fun op() = 1
+
+        override fun equals(other: Any?) = other === this
+
+        override fun hashCode() = 1
+
+        override fun toString() = "final"
+    }
+
+    class WithFinalBase : FinalBase() {
+        override fun equals(other: Any?) = other === this
+
+        override fun hashCode() = 2
+
+        override fun toString() = "with final"
+    }
+
+    interface WithDefault {
+        fun op() = 1
+    }
+
+    class OverridesDefault : WithDefault {
+        override fun op() = 2
+
+        override fun equals(other: Any?) = other === this
+
+        override fun hashCode() = 2
+
+        override fun toString() = "overrides"
+    }
+}
@@ -0,0 +1,96 @@
+package io.mockk.proxy.transformation
+
+import io.mockk.proxy.MockKAgentLogFactory
+import io.mockk.proxy.MockKAgentLogger
+import io.mockk.proxy.MockKInvocationHandler
+import io.mockk.proxy.jvm.JvmMockKAgentFactory
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import java.lang.reflect.Method
+import java.util.Collections
+import java.util.concurrent.Callable
+
+class PrecomputedTransformationTest {
+    private val messages = Collections.synchronizedList(mutableListOf<String>())
+
+    private val logFactory =
+        object : MockKAgentLogFactory {
+            override fun logger(cls: Class<*>) =
+                object : MockKAgentLogger {
+                    override fun debug(msg: String) {
+                        messages.add(msg)
+                    }
+
+                    override fun trace(msg: String) {
+                        messages.add(msg)
+                    }
+
+                    override fun trace(
+                        ex: Throwable,
+                        msg: String,
+                    ) {
+                        messages.add(msg)
+                    }
+
+                    override fun warn(msg: String) {
+                        messages.add(msg)
+                    }
+
+                    override fun warn(
+                        ex: Throwable,
+                        msg: String,
+                    ) {
+                        messages.add(msg)
+                    }
+                }
+        }
+
+    private val handler =
+        object : MockKInvocationHandler {
+            override fun invocation(
+                self: Any,
+                method: Method?,
+                originalCall: Callable<*>?,
+                args: Array<Any?>,
+            ): Any? = if (method?.name == "op") 5 else originalCall?.call()
+        }
+
+    @Test
+    fun `batched retransform of classes retransformed before uses precomputed bytes`() {
+        val agentFactory = JvmMockKAgentFactory()
+        agentFactory.init(logFactory)
+        val maker = agentFactory.proxyMaker
+
+        // attaches the agent, so the following mocks are batched
+        maker.proxy(Warmup::class.java, emptyArray(), handler, false, null).cancel()
+
+        val classes = listOf(First::class.java, Second::class.java)
+        repeat(2) {
+            messages.clear()
+            val proxies =
+                agentFactory.batchTransformations {
+                    classes.map { maker.proxy(it, emptyArray(), handler, false, null) }
+                }
+            assertEquals(5, (proxies[0].get() as First).op())
+            assertEquals(5, (proxies[1].get() as Second).op())
+            proxies.forEach { it.cancel() }
+        }
+
+        assertEquals(
+            classes.map { "Using precomputed transformation of ${it.name.replace('.', '/')}" },
+            messages.filter { it.startsWith("Using precomputed") }.sorted(),
+        )
+    }
+
+    class Warmup {
+        fun op() = 1
+    }
+
+    class First {
+        fun op() = 1
+    }
+
+    class Second {
+        fun op() = 2
+    }
+}
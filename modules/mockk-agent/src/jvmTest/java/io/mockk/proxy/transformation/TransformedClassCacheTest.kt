@@ -0,0 +1,52 @@
+package io.mockk.proxy.transformation
+
+import io.mockk.proxy.MockKAgentLogFactory
+import io.mockk.proxy.jvm.transformation.TransformedClassCache
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+
+class TransformedClassCacheTest {
+    @TempDir
+    lateinit var directory: File
+
+    private val log = MockKAgentLogFactory.simpleConsoleLogFactory.logger(TransformedClassCacheTest::class.java)
+    private val original = byteArrayOf(1, 2, 3)
+    private var transformations = 0
+
+    private fun transform(): ByteArray {
+        transformations++
+        return byteArrayOf(4, 5, transformations.toByte())
+    }
+
+    @Test
+    fun `reuses bytes stored by another cache instance`() {
+        val first = TransformedClassCache(log, directory, "v1").getOrPut(original, "simple", ::transform)
+        val second = TransformedClassCache(log, directory, "v1").getOrPut(original, "simple", ::transform)
+
+        assertArrayEquals(first, second)
+        assertEquals(1, transformations)
+    }
+
+    @Test
+    fun `transforms again for other variant, version or original bytes`() {
+        val cache = TransformedClassCache(log, directory, "v1")
+        cache.getOrPut(original, "simple", ::transform)
+        cache.getOrPut(original, "static", ::transform)
+        cache.getOrPut(byteArrayOf(1, 2), "simple", ::transform)
+        TransformedClassCache(log, directory, "v2").getOrPut(original, "simple", ::transform)
+
+        assertEquals(4, transformations)
+    }
+
+    @Test
+    fun `leaves no temporary files`() {
+        TransformedClassCache(log, directory, "v1").getOrPut(original, "simple", ::transform)
+
+        val files = directory.walk().filter { it.isFile }.toList()
+        assertEquals(1, files.size)
+        assertEquals("class", files.single().extension)
+    }
+}
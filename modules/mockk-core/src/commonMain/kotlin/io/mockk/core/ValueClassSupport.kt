@@ -26,4 +26,9 @@ fun <T : Any> T.maybeUnboxValueForMethodReturn(method: Method): Any?
      * The result might also be a value class! So check recursively, if necessary.
      */
     val KClass<*>.boxedClass: KClass<*>
+
+    /**
+     * Returns `true` if this class is a **`value class`**, without failing on classes unsupported by reflection.
+     */
+    val KClass<*>.isValueClass: Boolean
 }
@@ -2,7 +2,10 @@
 
 import io.mockk.core.ValueClassSupport.boxedValue
 import java.lang.reflect.Method
+import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.reflect.KClass
+import kotlin.reflect.KClassifier
 import kotlin.reflect.KProperty
 import kotlin.reflect.KProperty1
 import kotlin.reflect.KTypeParameter
@@ -30,39 +33,25 @@
     actual fun <T : Any> T.maybeUnboxValueForMethodReturn(method: Method): Any? {
         val resultType = this::class
         // Don't unbox if not a value class
-        if (!resultType.isValue_safe) return this
+        if (!resultType.isValueClass) return this
 
         // Unbox Kotlin synthetic *unbox-impl methods
         if (method.name.endsWith("unbox-impl")) return this.boxedValue
 
-        val kFunction = method.kotlinFunction
-        // It is possible that the method is a getter for a property, in which
-        // case we can check the property's return type in kotlin
-        val kProperty = if (kFunction == null) findMatchingPropertyWithJavaGetter(method) else null
-
-        val expectedReturnType =
-            when {
-                kFunction != null -> kFunction.returnType.classifier
-                kProperty != null -> kProperty.returnType.classifier
-                else -> return this
-            }
+        val returnInfo = method.kotlinReturnInfo() ?: return this
+        val expectedReturnType = returnInfo.classifier
 
         // For generic return types, use a cached Method to probe for null.
         // This avoids calling mocked/intercepted property getters.
         if (expectedReturnType !is KClass<*>) {
-            val method = resultType.resolveUnboxMethodOrNull()
+            val method = resultType.valueClassInfo.unboxMethod
             if (method != null) {
                 method.invoke(this) ?: return null
             }
             return this
         }
 
-        val isReturnNullable =
-            when {
-                kFunction != null -> kFunction.returnType.isMarkedNullable
-                kProperty != null -> kProperty.returnType.isMarkedNullable
-                else -> false
-            }
+        val isReturnNullable = returnInfo.isMarkedNullable
 
         // Use innermostBoxedClass with recursion limit to avoid infinite loops
         // (issue #1103) while still handling nested value classes (issue #1308)
@@ -77,16 +66,63 @@ actual fun <T : Any> T.maybeUnboxValueForMethodReturn(method: Method): Any? {
             isExpectedTypeSupertype -> this
             // Don't unbox for nullable primitives or suspend functions returning primitives
             isExpectedTypeValueClass && (isReturnNullable && isPrimitive) -> this
-            isExpectedTypeValueClass && (kFunction?.isSuspend == true && isPrimitive) -> this
+            isExpectedTypeValueClass && (returnInfo.isSuspend && isPrimitive) -> this
             // Unbox when returning the value class type directly
             isExpectedTypeValueClass -> this.boxedValue
             // Unbox for properties unless it's a nullable primitive
-            kProperty != null && !(isReturnNullable && isPrimitive) -> this.boxedValue
+            returnInfo.isProperty && !(isReturnNullable && isPrimitive) -> this.boxedValue
             // Default: don't unbox
             else -> this
         }
     }
 
+    /**
+     * Kotlin return type of a method, as needed by [maybeUnboxValueForMethodReturn].
+     */
+    private class KotlinReturnInfo(
+        val classifier: KClassifier?,
+        val isMarkedNullable: Boolean,
+        val isSuspend: Boolean,
+        val isProperty: Boolean,
+    )
+
+    /**
+     * [KotlinReturnInfo] per method, or [Optional.empty] for methods unknown to Kotlin reflection.
+     * Kept per declaring class, so it doesn't prevent class unloading.
+     */
+    private val kotlinReturnInfoCache =
+        object : ClassValue<ConcurrentHashMap<Method, Optional<KotlinReturnInfo>>>() {
+            override fun computeValue(type: Class<*>) = ConcurrentHashMap<Method, Optional<KotlinReturnInfo>>()
+        }
+
+    private fun Method.kotlinReturnInfo(): KotlinReturnInfo? =
+        kotlinReturnInfoCache
+            .get(declaringClass)
+            .getOrPut(this) { Optional.ofNullable(resolveKotlinReturnInfo(this)) }
+            .orElse(null)
+
+    private fun resolveKotlinReturnInfo(method: Method): KotlinReturnInfo? {
+        val kFunction = method.kotlinFunction
+        if (kFunction != null) {
+            return KotlinReturnInfo(
+                kFunction.returnType.classifier,
+                kFunction.returnType.isMarkedNullable,
+                kFunction.isSuspend,
+                isProperty = false,
+            )
+        }
+
+        // It is possible that the method is a getter for a property, in which
+        // case we can check the property's return type in kotlin
+        val kProperty = findMatchingPropertyWithJavaGetter(method) ?: return null
+        return KotlinReturnInfo(
+            kProperty.returnType.classifier,
+            kProperty.returnType.isMarkedNullable,
+            isSuspend = false,
+            isProperty = true,
+        )
+    }
+
     private fun findMatchingPropertyWithJavaGetter(method: Method): KProperty<*>? =
         method.declaringClass.kotlin.declaredMemberProperties.find {
             it.javaGetter == method
@@ -99,19 +135,18 @@ private fun findMatchingPropertyWithJavaGetter(method: Method): KProperty<*>? =
      * The type of the return might also be a `value class`!
      */
     actual val <T : Any> T.boxedValue: Any?
-        @Suppress("UNCHECKED_CAST")
-        get() =
-            if (!this::class.isValue_safe) {
-                this
+        get() {
+            val info = this::class.valueClassInfo
+            if (!info.isValue) {
+                return this
+            }
+            val boxedProperty = info.boxedProperty.get(this)
+            return if (info.klass == Result::class) {
+                boxedProperty
             } else {
-                val klass = (this::class as KClass<T>)
-                val boxedProperty = klass.boxedProperty.get(this)
-                if (klass == Result::class) {
-                    boxedProperty
-                } else {
-                    boxedProperty?.boxedValue
-                }
+                boxedProperty?.boxedValue
             }
+        }
 
     /**
      * Underlying property class of a **`value class`** or self.
@@ -119,18 +154,15 @@ private fun findMatchingPropertyWithJavaGetter(method: Method): KProperty<*>? =
      * The returned class might also be a `value class`!
      */
     actual val KClass<*>.boxedClass: KClass<*>
-        get() =
-            if (!this.isValue_safe) {
-                this
-            } else {
-                this.boxedProperty.returnType.classifier.let { classifier ->
-                    when (classifier) {
-                        is KClass<*> -> classifier
-                        is KTypeParameter -> classifier.upperBounds.firstNotNullOfOrNull { it.classifier as? KClass<*> } ?: Any::class
-                        else -> Any::class
-                    }
-                }
-            }
+        get() = valueClassInfo.boxedClass
+
+    /**
+     * Returns `true` if this class is a **`value class`**.
+     *
+     * Unlike [KClass.isValue], this doesn't throw for classes Kotlin reflection can't analyze.
+     */
+    actual val KClass<*>.isValueClass: Boolean
+        get() = valueClassInfo.isValue
 
     /**
      * Underlying property class of a **`value class`** or self.
@@ -139,64 +171,97 @@ private fun findMatchingPropertyWithJavaGetter(method: Method): KProperty<*>? =
      *
      * @param maxDepth Maximum recursion depth (default 10)
      */
-    fun KClass<*>.innermostBoxedClass(maxDepth: Int = 10): KClass<*> {
-        if (maxDepth <= 0 || !this.isValue_safe) {
+    fun KClass<*>.innermostBoxedClass(maxDepth: Int = MAX_BOXING_DEPTH): KClass<*> =
+        if (maxDepth == MAX_BOXING_DEPTH) {
+            valueClassInfo.innermostBoxedClass
+        } else {
+            resolveInnermostBoxedClass(maxDepth)
+        }
+
+    private fun KClass<*>.resolveInnermostBoxedClass(maxDepth: Int): KClass<*> {
+        if (maxDepth <= 0 || !this.isValueClass) {
             return this
         }
         val boxed = this.boxedClass
         return if (boxed == this) {
             this
         } else {
-            boxed.innermostBoxedClass(maxDepth - 1)
+            boxed.resolveInnermostBoxedClass(maxDepth - 1)
         }
     }
 
-    private val valueClassFieldCache = mutableMapOf<KClass<out Any>, KProperty1<out Any, *>>()
+    private const val MAX_BOXING_DEPTH = 10
 
     /**
-     * Cached [Method]s to synthetic `unbox-impl` methods.
+     * Value class metadata of one class.
+     *
+     * Resolved through Kotlin reflection at most once per class and shared by the recording path and
+     * the return path of intercepted calls. Members that can fail to resolve are lazy, so a failure is
+     * reported on use and retried next time, as without caching.
      */
-    private val valueClassUnboxMethodCache = mutableMapOf<KClass<out Any>, Method?>()
+    private class ValueClassInfo(
+        val klass: KClass<*>,
+    ) {
+        val isValue: Boolean = klass.isValue_safe
 
-    /**
-     * Resolves a [Method] for the `unbox-impl` method of a value class.
-     */
-    private fun <T : Any> KClass<T>.resolveUnboxMethodOrNull(): Method? {
-        // There's no such method for non-value classes
-        if (!this.isValue_safe) return null
+        /**
+         * Underlying property of a **`value class`**.
+         *
+         * The underlying property might also be a `value class`!
+         */
+        val boxedProperty: KProperty1<Any, *> by lazy {
+            if (!isValue) {
+                throw UnsupportedOperationException("$klass is not a value class")
+            }
+            // value classes always have exactly one property with a backing field
+            val property = klass.declaredMemberProperties.first { it.javaField != null }.apply { isAccessible = true }
+            @Suppress("UNCHECKED_CAST")
+            property as KProperty1<Any, *>
+        }
 
-        return valueClassUnboxMethodCache.getOrPut(this) {
+        /**
+         * Synthetic `unbox-impl` method of a **`value class`**, or `null` if there is none.
+         */
+        val unboxMethod: Method? by lazy {
+            if (!isValue) {
+                return@lazy null
+            }
             try {
                 // Find zero-arg Kotlin synthetic unbox method: *unbox-impl
-                val unboxImplMethod =
-                    this.java.declaredMethods.firstOrNull {
+                klass.java.declaredMethods
+                    .firstOrNull {
                         it.name.endsWith("unbox-impl") && it.parameterCount == 0
-                    } ?: return@getOrPut null
-                unboxImplMethod.isAccessible = true
-                unboxImplMethod
+                    }?.apply { isAccessible = true }
             } catch (_: Exception) {
                 // Cache null as sentinel value; hot path won’t retry or throw
                 null
             }
         }
-    }
 
-    /**
-     * Underlying property of a **`value class`**.
-     *
-     * The underlying property might also be a `value class`!
-     */
-    private val <T : Any> KClass<T>.boxedProperty: KProperty1<T, *>
-        get() =
-            if (!this.isValue_safe) {
-                throw UnsupportedOperationException("$this is not a value class")
+        val boxedClass: KClass<*> by lazy {
+            if (!isValue) {
+                klass
             } else {
-                @Suppress("UNCHECKED_CAST")
-                valueClassFieldCache.getOrPut(this) {
-                    // value classes always have exactly one property with a backing field
-                    this.declaredMemberProperties.first { it.javaField != null }.apply { isAccessible = true }
-                } as KProperty1<T, *>
+                boxedProperty.returnType.classifier.let { classifier ->
+                    when (classifier) {
+                        is KClass<*> -> classifier
+                        is KTypeParameter -> classifier.upperBounds.firstNotNullOfOrNull { it.classifier as? KClass<*> } ?: Any::class
+                        else -> Any::class
+                    }
+                }
             }
+        }
+
+        val innermostBoxedClass: KClass<*> by lazy { klass.resolveInnermostBoxedClass(MAX_BOXING_DEPTH) }
+    }
+
+    private val valueClassInfos =
+        object : ClassValue<ValueClassInfo>() {
+            override fun computeValue(type: Class<*>) = ValueClassInfo(type.kotlin)
+        }
+
+    private val KClass<*>.valueClassInfo: ValueClassInfo
+        get() = valueClassInfos.get(java)
 
     /**
      * Returns `true` if calling [KClass.isValue] is safe.
@@ -0,0 +1,54 @@
+package io.mockk.core
+
+import io.mockk.core.ValueClassSupport.boxedClass
+import io.mockk.core.ValueClassSupport.boxedValue
+import io.mockk.core.ValueClassSupport.innermostBoxedClass
+import io.mockk.core.ValueClassSupport.isValueClass
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class ValueClassSupportTest {
+    @Test
+    fun `isValueClass tells value classes apart`() {
+        assertTrue(Inner::class.isValueClass)
+        assertFalse(String::class.isValueClass)
+        assertFalse({ x: Int -> x }::class.isValueClass)
+    }
+
+    @Test
+    fun `boxedClass and innermostBoxedClass of nested value class`() {
+        assertEquals(Inner::class, Outer::class.boxedClass)
+        assertEquals(Int::class, Outer::class.innermostBoxedClass())
+        assertEquals(Inner::class, Outer::class.innermostBoxedClass(maxDepth = 1))
+        assertEquals(String::class, String::class.innermostBoxedClass())
+    }
+
+    @Test
+    fun `boxedValue unwraps nested value classes`() {
+        assertEquals(5, Outer(Inner(5)).boxedValue)
+        assertEquals("str", "str".boxedValue)
+    }
+
+    @Test
+    fun `boxedValue is consistent across threads`() {
+        val results = IntArray(8)
+        (0 until 8)
+            .map { idx -> thread { results[idx] = Outer(Inner(idx)).boxedValue as Int } }
+            .forEach { it.join() }
+
+        assertEquals((0 until 8).toList(), results.toList())
+    }
+
+    @JvmInline
+    value class Inner(
+        val value: Int,
+    )
+
+    @JvmInline
+    value class Outer(
+        val inner: Inner,
+    )
+}
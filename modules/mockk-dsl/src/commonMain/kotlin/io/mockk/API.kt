@@ -33,6 +33,9 @@ inline fun <reified T : Any> internalMockk(
         relaxed: Boolean = false,
         moreInterfaces: Array<out KClass<*>>,
         relaxUnitFun: Boolean = false,
+        stackTraceCapture: StackTraceCapture? = null,
+        recordCalls: Boolean = true,
+        callRetention: CallRetention? = null,
         block: T.() -> Unit = {},
     ): T {
         val mock =
@@ -42,6 +45,9 @@ inline fun <reified T : Any> internalMockk(
                 relaxed,
                 moreInterfaces,
                 relaxUnitFun,
+                stackTraceCapture,
+                recordCalls,
+                callRetention,
             )
         block(mock)
         return mock
@@ -55,6 +61,9 @@ inline fun <T : Any> internalSpyk(
         name: String? = null,
         moreInterfaces: Array<out KClass<*>>,
         recordPrivateCalls: Boolean = false,
+        stackTraceCapture: StackTraceCapture? = null,
+        recordCalls: Boolean = true,
+        callRetention: CallRetention? = null,
         block: T.() -> Unit = {},
     ): T {
         val spy =
@@ -64,6 +73,9 @@ inline fun <T : Any> internalSpyk(
                 name,
                 moreInterfaces,
                 recordPrivateCalls,
+                stackTraceCapture,
+                recordCalls,
+                callRetention,
             )
         block(spy)
         return spy
@@ -76,6 +88,9 @@ inline fun <reified T : Any> internalSpyk(
         name: String? = null,
         moreInterfaces: Array<out KClass<*>>,
         recordPrivateCalls: Boolean = false,
+        stackTraceCapture: StackTraceCapture? = null,
+        recordCalls: Boolean = true,
+        callRetention: CallRetention? = null,
         block: T.() -> Unit = {},
     ): T {
         val spy =
@@ -85,6 +100,9 @@ inline fun <reified T : Any> internalSpyk(
                 name,
                 moreInterfaces,
                 recordPrivateCalls,
+                stackTraceCapture,
+                recordCalls,
+                callRetention,
             )
         block(spy)
         return spy
@@ -422,9 +440,18 @@ inline fun <T : Any> internalMockkClass(
         relaxed: Boolean,
         moreInterfaces: Array<out KClass<*>>,
         relaxUnitFun: Boolean = false,
+        stackTraceCapture: StackTraceCapture? = null,
         block: T.() -> Unit,
     ): T {
-        val mock = MockKGateway.implementation().mockFactory.mockk(type, name, relaxed, moreInterfaces, relaxUnitFun)
+        val mock =
+            MockKGateway.implementation().mockFactory.mockk(
+                type,
+                name,
+                relaxed,
+                moreInterfaces,
+                relaxUnitFun,
+                stackTraceCapture,
+            )
         block(mock)
         return mock
     }
@@ -5322,6 +5349,8 @@ override fun hashCode(): Int {
 
 /**
  * Mock invocation
+ *
+ * @property sequence position of this invocation among invocations of all mocks, increasing in call order
  */
 data class Invocation(
     val self: Any,
@@ -5332,6 +5361,7 @@ data class Invocation(
     val callStack: () -> List<StackElement>,
     val originalCall: () -> Any?,
     val fieldValueProvider: BackingFieldValueProvider,
+    val sequence: Long = 0,
 ) {
     fun substitute(map: Map<Any, Any>) =
         Invocation(
@@ -5343,6 +5373,7 @@ fun substitute(map: Map<Any, Any>) =
             callStack,
             originalCall,
             fieldValueProvider,
+            sequence,
         )
 
     override fun equals(other: Any?): Boolean {
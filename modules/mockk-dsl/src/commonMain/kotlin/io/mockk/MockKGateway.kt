@@ -44,6 +44,9 @@ fun <T : Any> mockk(
             relaxed: Boolean,
             moreInterfaces: Array<out KClass<*>>,
             relaxUnitFun: Boolean,
+            stackTraceCapture: StackTraceCapture? = null,
+            recordCalls: Boolean = true,
+            callRetention: CallRetention? = null,
         ): T
 
         fun <T : Any> spyk(
@@ -52,6 +55,9 @@ fun <T : Any> spyk(
             name: String?,
             moreInterfaces: Array<out KClass<*>>,
             recordPrivateCalls: Boolean,
+            stackTraceCapture: StackTraceCapture? = null,
+            recordCalls: Boolean = true,
+            callRetention: CallRetention? = null,
         ): T
 
         fun temporaryMock(mockType: KClass<*>): Any
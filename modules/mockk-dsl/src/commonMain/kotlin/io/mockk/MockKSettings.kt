@@ -13,6 +13,14 @@
 
     val failOnSetBackingFieldException: Boolean
 
+    val stackTraceCapture: StackTraceCapture
+
+    val stackTraceSamplingInterval: Int
+
+    val stackTraceMaxDepth: Int
+
+    val callRetention: CallRetention
+
     fun setRelaxed(value: Boolean)
 
     fun setRelaxUnitFun(value: Boolean)
@@ -24,6 +32,14 @@ fun setStackTracesOnVerify(value: Boolean)
     fun setStackTracesAlignment(value: String)
 
     fun setFailOnSetBackingFieldException(value: Boolean)
+
+    fun setStackTraceCapture(value: String)
+
+    fun setStackTraceSamplingInterval(value: Int)
+
+    fun setStackTraceMaxDepth(value: Int)
+
+    fun setCallRetention(value: String)
 }
 
 enum class StackTracesAlignment {
@@ -37,3 +53,110 @@ fun stackTracesAlignmentValueOf(property: String): StackTracesAlignment =
     } catch (_: IllegalArgumentException) {
         StackTracesAlignment.CENTER
     }
+
+/**
+ * Defines how the call stack of each recorded call is captured.
+ *
+ * The call stack is only used to report stack traces on verification failures,
+ * so cheaper modes trade report detail for lower per-call overhead.
+ */
+enum class StackTraceCapture {
+    /**
+     * Fills the whole stack trace on every call.
+     */
+    FULL,
+
+    /**
+     * Walks at most [MockKSettings.stackTraceMaxDepth] frames on every call
+     * and converts them to stack elements only when reported.
+     */
+    LAZY_WALKER,
+
+    /**
+     * Fills the whole stack trace only for every [MockKSettings.stackTraceSamplingInterval]-th call of a mock.
+     */
+    SAMPLED,
+
+    /**
+     * Never captures stack traces.
+     */
+    NONE,
+}
+
+fun stackTraceCaptureValueOf(property: String): StackTraceCapture =
+    try {
+        enumValueOf(property.uppercase())
+    } catch (_: IllegalArgumentException) {
+        StackTraceCapture.FULL
+    }
+
+/**
+ * Defines which recorded calls a mock keeps for verification.
+ *
+ * Bounded policies count the calls they drop, so verification failures can report
+ * that the call history of a mock is incomplete.
+ */
+sealed class CallRetention {
+    /**
+     * Keeps every recorded call.
+     */
+    object Unbounded : CallRetention() {
+        override fun toString() = "unbounded"
+    }
+
+    /**
+     * Keeps only the last [size] recorded calls.
+     */
+    data class Last(
+        val size: Int,
+    ) : CallRetention() {
+        init {
+            require(size > 0) { "size should be positive" }
+        }
+
+        override fun toString() = "last:$size"
+    }
+
+    /**
+     * Keeps only the calls recorded during the last [millis] milliseconds.
+     */
+    data class TimeWindow(
+        val millis: Long,
+    ) : CallRetention() {
+        init {
+            require(millis > 0) { "millis should be positive" }
+        }
+
+        override fun toString() = "window:$millis"
+    }
+
+    /**
+     * Keeps only every [interval]-th recorded call.
+     */
+    data class Sampled(
+        val interval: Int,
+    ) : CallRetention() {
+        init {
+            require(interval > 0) { "interval should be positive" }
+        }
+
+        override fun toString() = "sampled:$interval"
+    }
+}
+
+/**
+ * Parses `unbounded`, `last:<size>`, `window:<millis>` or `sampled:<interval>`.
+ * Falls back to [CallRetention.Unbounded] for anything else.
+ */
+fun callRetentionValueOf(property: String): CallRetention {
+    val kind = property.substringBefore(':').trim().lowercase()
+    val value = property.substringAfter(':', "").trim().toLongOrNull()?.takeIf { it > 0 }
+
+    return when {
+        value == null -> CallRetention.Unbounded
+        kind == "last" && value <= Int.MAX_VALUE -> CallRetention.Last(value.toInt())
+        kind == "window" -> CallRetention.TimeWindow(value)
+        kind == "sampled" && value <= Int.MAX_VALUE -> CallRetention.Sampled(value.toInt())
+        else -> CallRetention.Unbounded
+    }
+}
@@ -22,6 +22,24 @@
     actual val failOnSetBackingFieldException: Boolean
         get() = js("global.io_mockk_settings_failOnSetBackingFieldException || false") as Boolean
 
+    actual val stackTraceCapture: StackTraceCapture
+        get() =
+            stackTraceCaptureValueOf(
+                js("global.io_mockk_settings_stackTraceCapture || \"full\"") as String,
+            )
+
+    actual val stackTraceSamplingInterval: Int
+        get() = js("global.io_mockk_settings_stackTraceSamplingInterval || 100") as Int
+
+    actual val stackTraceMaxDepth: Int
+        get() = js("global.io_mockk_settings_stackTraceMaxDepth || 64") as Int
+
+    actual val callRetention: CallRetention
+        get() =
+            callRetentionValueOf(
+                js("global.io_mockk_settings_callRetention || \"unbounded\"") as String,
+            )
+
     actual fun setRelaxed(value: Boolean) {
         js("global.io_mockk_settings_relaxed = value")
     }
@@ -45,4 +63,20 @@ actual fun setStackTracesAlignment(value: String) {
     actual fun setFailOnSetBackingFieldException(value: Boolean) {
         js("global.io_mockk_settings_failOnSetBackingFieldException = value")
     }
+
+    actual fun setStackTraceCapture(value: String) {
+        js("global.io_mockk_settings_stackTraceCapture = value")
+    }
+
+    actual fun setStackTraceSamplingInterval(value: Int) {
+        js("global.io_mockk_settings_stackTraceSamplingInterval = value")
+    }
+
+    actual fun setStackTraceMaxDepth(value: Int) {
+        js("global.io_mockk_settings_stackTraceMaxDepth = value")
+    }
+
+    actual fun setCallRetention(value: String) {
+        js("global.io_mockk_settings_callRetention = value")
+    }
 }
@@ -15,6 +15,18 @@ private fun booleanProperty(
         )!!
         .toBoolean()
 
+    private fun intProperty(
+        property: String,
+        defaultValue: String,
+    ) = properties
+        .getProperty(
+            property,
+            defaultValue,
+        )!!
+        .toIntOrNull()
+        ?.takeIf { it > 0 }
+        ?: defaultValue.toInt()
+
     actual val relaxed: Boolean
         get() = booleanProperty("relaxed", "false")
 
@@ -33,6 +45,18 @@ private fun booleanProperty(
     actual val failOnSetBackingFieldException: Boolean
         get() = booleanProperty("failOnSetBackingFieldException", "false")
 
+    actual val stackTraceCapture: StackTraceCapture
+        get() = stackTraceCaptureValueOf(properties.getProperty("stackTraceCapture", "full"))
+
+    actual val stackTraceSamplingInterval: Int
+        get() = intProperty("stackTraceSamplingInterval", "100")
+
+    actual val stackTraceMaxDepth: Int
+        get() = intProperty("stackTraceMaxDepth", "64")
+
+    actual val callRetention: CallRetention
+        get() = callRetentionValueOf(properties.getProperty("callRetention", "unbounded"))
+
     actual fun setRelaxed(value: Boolean) {
         properties.setProperty("relaxed", value.toString())
     }
@@ -56,4 +80,20 @@ actual fun setStackTracesAlignment(value: String) {
     actual fun setFailOnSetBackingFieldException(value: Boolean) {
         properties.setProperty("failOnSetBackingFieldException", value.toString())
     }
+
+    actual fun setStackTraceCapture(value: String) {
+        properties.setProperty("stackTraceCapture", value)
+    }
+
+    actual fun setStackTraceSamplingInterval(value: Int) {
+        properties.setProperty("stackTraceSamplingInterval", value.toString())
+    }
+
+    actual fun setStackTraceMaxDepth(value: Int) {
+        properties.setProperty("stackTraceMaxDepth", value.toString())
+    }
+
+    actual fun setCallRetention(value: String) {
+        properties.setProperty("callRetention", value)
+    }
 }
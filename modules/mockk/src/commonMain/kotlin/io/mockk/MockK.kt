@@ -20,6 +20,9 @@
  * @param moreInterfaces additional interfaces for this mockk to implement, in addition to the specified class.
  * @param relaxUnitFun allows creation with no specific behaviour for Unit function.
  * Unstubbed methods that return [Unit] will not throw, while other methods will still throw unless they are stubbed.
+ * @param stackTraceCapture how call stacks of recorded calls are captured, [MockKSettings.stackTraceCapture] if not set.
+ * @param recordCalls when false, calls are only answered and never recorded, so the mock can't be verified.
+ * @param callRetention which recorded calls are kept for verification, [MockKSettings.callRetention] if not set.
  * @param block block to execute after mock is created with mock as a receiver. Similar to using `kotlin.apply` on the mock object.
  *
  * Example:
@@ -42,6 +45,9 @@ inline fun <reified T : Any> mockk(
     vararg moreInterfaces: KClass<*>,
     relaxUnitFun: Boolean = false,
     mockValidator: MockkValidator = MockkValidator(RestrictMockkConfiguration()),
+    stackTraceCapture: StackTraceCapture? = null,
+    recordCalls: Boolean = true,
+    callRetention: CallRetention? = null,
     block: T.() -> Unit = {},
 ): T =
     MockK.useImpl {
@@ -52,6 +58,9 @@ inline fun <reified T : Any> mockk(
             relaxed,
             moreInterfaces,
             relaxUnitFun = relaxUnitFun,
+            stackTraceCapture = stackTraceCapture,
+            recordCalls = recordCalls,
+            callRetention = callRetention,
             block = block,
         )
     }
@@ -65,12 +74,18 @@ inline fun <reified T : Any> mockk(
  * @param name spyk name
  * @param moreInterfaces additional interfaces for this spyk to implement, in addition to the specified class.
  * @param recordPrivateCalls allows this spyk to record any private calls, enabling a verification.
+ * @param stackTraceCapture how call stacks of recorded calls are captured, [MockKSettings.stackTraceCapture] if not set.
+ * @param recordCalls when false, calls are only answered and never recorded, so the mock can't be verified.
+ * @param callRetention which recorded calls are kept for verification, [MockKSettings.callRetention] if not set.
  * @param block block to execute after spyk is created with spyk as a receiver. Similar to using `kotlin.apply` on the spyk object.
  */
 inline fun <reified T : Any> spyk(
     name: String? = null,
     vararg moreInterfaces: KClass<*>,
     recordPrivateCalls: Boolean = false,
+    stackTraceCapture: StackTraceCapture? = null,
+    recordCalls: Boolean = true,
+    callRetention: CallRetention? = null,
     block: T.() -> Unit = {},
 ): T =
     MockK.useImpl {
@@ -78,6 +93,9 @@ inline fun <reified T : Any> spyk(
             name,
             moreInterfaces,
             recordPrivateCalls = recordPrivateCalls,
+            stackTraceCapture = stackTraceCapture,
+            recordCalls = recordCalls,
+            callRetention = callRetention,
             block = block,
         )
     }
@@ -91,6 +109,9 @@ inline fun <reified T : Any> spyk(
  * @param name spyk name
  * @param moreInterfaces additional interfaces for this spyk to implement, in addition to the specified class.
  * @param recordPrivateCalls allows this spyk to record any private calls, enabling a verification.
+ * @param stackTraceCapture how call stacks of recorded calls are captured, [MockKSettings.stackTraceCapture] if not set.
+ * @param recordCalls when false, calls are only answered and never recorded, so the mock can't be verified.
+ * @param callRetention which recorded calls are kept for verification, [MockKSettings.callRetention] if not set.
  * @param block block to execute after spyk is created with spyk as a receiver. Similar to using `kotlin.apply` on the spyk object.
  */
 inline fun <reified T : Any> spyk(
@@ -98,6 +119,9 @@ inline fun <reified T : Any> spyk(
     name: String? = null,
     vararg moreInterfaces: KClass<*>,
     recordPrivateCalls: Boolean = false,
+    stackTraceCapture: StackTraceCapture? = null,
+    recordCalls: Boolean = true,
+    callRetention: CallRetention? = null,
     block: T.() -> Unit = {},
 ): T =
     MockK.useImpl {
@@ -106,6 +130,9 @@ inline fun <reified T : Any> spyk(
             name,
             moreInterfaces,
             recordPrivateCalls = recordPrivateCalls,
+            stackTraceCapture = stackTraceCapture,
+            recordCalls = recordCalls,
+            callRetention = callRetention,
             block = block,
         )
     }
@@ -528,6 +555,7 @@ inline fun <T : Any> mockkClass(
     relaxed: Boolean = false,
     vararg moreInterfaces: KClass<*>,
     relaxUnitFun: Boolean = false,
+    stackTraceCapture: StackTraceCapture? = null,
     block: T.() -> Unit = {},
 ): T =
     MockK.useImpl {
@@ -537,6 +565,7 @@ inline fun <T : Any> mockkClass(
             relaxed,
             moreInterfaces,
             relaxUnitFun = relaxUnitFun,
+            stackTraceCapture = stackTraceCapture,
             block = block,
         )
     }
@@ -36,6 +36,8 @@ fun <T : Any> copyFields(
 
     fun captureStackTrace(): () -> List<StackElement>
 
+    fun walkStackTrace(maxDepth: Int): () -> List<StackElement>
+
     fun weakRef(value: Any): WeakRef
 
     fun multiNotifier(): MultiNotifier
@@ -19,10 +19,12 @@
  * @param name name of a mockk
  * @param relaxed make it relaxed, an alternative to [RelaxedMockK]
  * @param relaxUnitFun make it relaxed only for unit returning functions
+ * @param recordCalls record calls to allow verification, set to false for stub-only mocks
  *
  */
 annotation class MockK(
     val name: String = "",
     val relaxed: Boolean = false,
     val relaxUnitFun: Boolean = false,
+    val recordCalls: Boolean = true,
 )
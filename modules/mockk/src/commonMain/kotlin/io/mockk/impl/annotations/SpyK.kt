@@ -18,9 +18,11 @@
  *
  * @param name name of a spyk
  * @param recordPrivateCalls enables recording of private calls
+ * @param recordCalls record calls to allow verification, set to false for stub-only spies
  *
  */
 annotation class SpyK(
     val name: String = "",
     val recordPrivateCalls: Boolean = true,
+    val recordCalls: Boolean = true,
 )
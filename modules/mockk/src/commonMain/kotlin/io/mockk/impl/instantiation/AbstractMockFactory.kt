@@ -1,10 +1,12 @@
 package io.mockk.impl.instantiation
 
+import io.mockk.CallRetention
 import io.mockk.InternalPlatformDsl
 import io.mockk.InternalPlatformDsl.toStr
 import io.mockk.MockKException
 import io.mockk.MockKGateway
 import io.mockk.MockKSettings
+import io.mockk.StackTraceCapture
 import io.mockk.impl.InternalPlatform
 import io.mockk.impl.log.Logger
 import io.mockk.impl.stub.MockKStub
@@ -39,6 +41,9 @@ override fun <T : Any> mockk(
         relaxed: Boolean,
         moreInterfaces: Array<out KClass<*>>,
         relaxUnitFun: Boolean,
+        stackTraceCapture: StackTraceCapture?,
+        recordCalls: Boolean,
+        callRetention: CallRetention?,
     ): T {
         val id = newId()
         val newName = (name ?: "") + "#$id"
@@ -52,6 +57,9 @@ override fun <T : Any> mockk(
                 gatewayAccess,
                 true,
                 MockType.REGULAR,
+                stackTraceCapture ?: MockKSettings.stackTraceCapture,
+                recordCalls,
+                callRetention ?: MockKSettings.callRetention,
             )
 
         if (moreInterfaces.isEmpty()) {
@@ -76,6 +84,9 @@ override fun <T : Any> spyk(
         name: String?,
         moreInterfaces: Array<out KClass<*>>,
         recordPrivateCalls: Boolean,
+        stackTraceCapture: StackTraceCapture?,
+        recordCalls: Boolean,
+        callRetention: CallRetention?,
     ): T {
         val id = newId()
         val newName = (name ?: "") + "#$id"
@@ -100,6 +111,9 @@ override fun <T : Any> spyk(
                 gatewayAccess,
                 recordPrivateCalls || MockKSettings.recordPrivateCalls,
                 MockType.SPY,
+                stackTraceCapture ?: MockKSettings.stackTraceCapture,
+                recordCalls,
+                callRetention ?: MockKSettings.callRetention,
             )
 
         val useDefaultConstructor = objToCopy == null
@@ -1,11 +1,13 @@
 package io.mockk.impl.recording
 
 import io.mockk.Invocation
+import io.mockk.MockKException
 import io.mockk.MockKGateway
 import io.mockk.impl.InternalPlatform
 import io.mockk.impl.log.SafeToString
 import io.mockk.impl.stub.Stub
 import io.mockk.impl.stub.StubRepository
+import io.mockk.impl.verify.VerificationHelpers
 import io.mockk.impl.verify.VerificationReportFormatter
 
 class CommonVerificationAcknowledger(
@@ -22,6 +24,7 @@ override fun acknowledgeVerified() {
 
     override fun acknowledgeVerified(mock: Any) {
         val stub = stubRepo.stubFor(mock)
+        checkCallsRecorded(stub, "verify")
         acknowledgeVerificationHelper(stub)
     }
 
@@ -31,10 +34,29 @@ override fun checkUnnecessaryStub() {
 
     override fun checkUnnecessaryStub(mock: Any) {
         val stub = stubRepo.stubFor(mock)
+        checkCallsRecorded(stub, "check stubbings of")
         checkUnnecessaryStubHelper(stub)
     }
 
+    private fun checkCallsRecorded(
+        stub: Stub,
+        action: String,
+    ) {
+        if (stub.recordCalls) return
+
+        throw MockKException(
+            safeToString.exec {
+                "Can't $action ${stub.toStr()}: created with recordCalls = false, calls to it are not recorded"
+            },
+        )
+    }
+
     private fun acknowledgeVerificationHelper(stub: Stub) {
+        if (stub.evictedCallCount() > 0) {
+            val note = safeToString.exec { VerificationHelpers.evictedCallsNote(listOf(stub)) }
+            throw AssertionError("Verification acknowledgment failed: evicted calls can't be confirmed as verified$note")
+        }
+
         val allCalls = stub.allRecordedCalls().map { InternalPlatform.ref(it) }.toHashSet()
         val verifiedCalls = stub.verifiedCalls().map { InternalPlatform.ref(it) }.toHashSet()
 
@@ -13,7 +13,9 @@ open class AnsweringState(
 
     override fun call(invocation: Invocation): Any? {
         val stub = recorder.stubRepo.stubFor(invocation.self)
-        stub.recordCall(invocation.copy(originalCall = { null }))
+        if (stub.recordCalls) {
+            stub.recordCall(invocation.copy(originalCall = { null }))
+        }
         try {
             val answer = stub.answer(invocation)
             log.debug { "Answering ${answer.toStr()} on $invocation" }
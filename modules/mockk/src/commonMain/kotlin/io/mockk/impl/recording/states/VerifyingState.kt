@@ -3,6 +3,7 @@
 import io.mockk.MockKException
 import io.mockk.MockKGateway.VerificationParameters
 import io.mockk.MockKGateway.VerificationResult
+import io.mockk.Ordering
 import io.mockk.impl.log.Logger
 import io.mockk.impl.recording.CommonCallRecorder
 import io.mockk.impl.stub.Stub
@@ -16,6 +17,7 @@ override fun wasNotCalled(list: List<Any>) = addWasNotCalled(list)
 
     override fun recordingDone(): CallRecordingState {
         checkMissingCalls()
+        checkCallsRecorded()
 
         val verifier = recorder.factories.verifier(params)
 
@@ -37,6 +39,7 @@ override fun recordingDone(): CallRecordingState {
 
         log.trace { "Done verification. Outcome: $outcome" }
         failIfNotPassed(outcome, params.inverse)
+        failIfHistoryIncomplete(params)
         markVerified(outcome)
 
         checkWasNotCalled(sorter.wasNotCalledCalls.map { it.matcher.self })
@@ -50,6 +53,23 @@ private fun checkMissingCalls() {
         }
     }
 
+    private fun checkCallsRecorded() {
+        val notRecording =
+            recorder.calls
+                .map { recorder.stubRepo.stubFor(it.matcher.self) }
+                .distinct()
+                .filter { !it.recordCalls }
+
+        if (notRecording.isNotEmpty()) {
+            throw MockKException(
+                recorder.safeExec {
+                    "Can't verify ${notRecording.joinToString(", ") { it.toStr() }}: " +
+                        "created with recordCalls = false, calls to it are not recorded"
+                },
+            )
+        }
+    }
+
     private fun failIfNotPassed(
         outcome: VerificationResult,
         inverse: Boolean,
@@ -62,11 +82,36 @@ private fun failIfNotPassed(
                 }
             is VerificationResult.Failure ->
                 if (!inverse) {
-                    throw AssertionError("Verification failed: ${outcome.message}")
+                    throw AssertionError("Verification failed: ${outcome.message}${evictedCallsReport()}")
                 }
         }
     }
 
+    private fun involvedStubs() =
+        recorder.calls
+            .map { recorder.stubRepo.stubFor(it.matcher.self) }
+            .distinct()
+
+    private fun evictedCallsReport() = recorder.safeExec { VerificationHelpers.evictedCallsNote(involvedStubs()) }
+
+    /**
+     * Inverse checks, upper bounds on the call count and verifyAll/verifySequence
+     * pass because calls are missing, which can't be told apart from calls dropped by call retention.
+     */
+    private fun failIfHistoryIncomplete(params: VerificationParameters) {
+        val dependsOnMissingCalls =
+            params.inverse ||
+                params.max != Int.MAX_VALUE ||
+                params.ordering == Ordering.ALL ||
+                params.ordering == Ordering.SEQUENCE
+        if (!dependsOnMissingCalls) return
+
+        val note = evictedCallsReport()
+        if (note.isEmpty()) return
+
+        throw AssertionError("Verification failed: outcome depends on calls that may have been evicted$note")
+    }
+
     private fun markVerified(outcome: VerificationResult) {
         if (outcome is VerificationResult.OK) {
             for (invocation in outcome.verifiedCalls) {
@@ -80,7 +125,7 @@ private fun checkWasNotCalled(mocks: List<Any>) {
         for (mock in mocks) {
             val stub = recorder.stubRepo.stubFor(mock)
             val calls = stub.allRecordedCalls()
-            if (calls.isNotEmpty()) {
+            if (calls.isNotEmpty() || stub.evictedCallCount() > 0) {
                 calledStubs += stub
             }
         }
@@ -91,14 +136,16 @@ private fun checkWasNotCalled(mocks: List<Any>) {
                 throw AssertionError(
                     recorder.safeExec {
                         "Verification failed: ${calledStub.toStr()} should not be called:\n" +
-                            calledStub.allRecordedCalls().joinToString("\n")
+                            calledStub.allRecordedCalls().joinToString("\n") +
+                            VerificationHelpers.evictedCallsNote(listOf(calledStub))
                     },
                 )
             } else {
                 throw AssertionError(
                     recorder.safeExec {
                         "Verification failed: ${calledStubs.joinToString(", ") { it.toStr() }} should not be called:\n" +
-                            calledStubs.flatMap { it.allRecordedCalls() }.joinToString("\n")
+                            calledStubs.flatMap { it.allRecordedCalls() }.joinToString("\n") +
+                            VerificationHelpers.evictedCallsNote(calledStubs)
                     },
                 )
             }
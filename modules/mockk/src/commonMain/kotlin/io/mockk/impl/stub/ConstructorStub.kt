@@ -2,6 +2,7 @@
 
 import io.mockk.Answer
 import io.mockk.BackingFieldValueProvider
+import io.mockk.CallRetention
 import io.mockk.Invocation
 import io.mockk.InvocationMatcher
 import io.mockk.MethodDescription
@@ -34,6 +35,12 @@ private fun <K, V> identityMapOf(vararg pairs: Pair<K, V>): Map<K, V> =
     override val threadId: Long
         get() = stub.threadId
 
+    override val recordCalls: Boolean
+        get() = stub.recordCalls
+
+    override val callRetention: CallRetention
+        get() = stub.callRetention
+
     override fun addAnswer(
         matcher: InvocationMatcher,
         answer: Answer<*>,
@@ -96,6 +103,15 @@ override fun allRecordedCalls(method: MethodDescription) =
                 it.substitute(revertRepresentation)
             }
 
+    override fun recordedCallsAfter(position: Long) =
+        stub
+            .recordedCallsAfter(position)
+            .let { (calls, lastPosition) ->
+                Pair(calls.map { it.substitute(revertRepresentation) }, lastPosition)
+            }
+
+    override fun evictedCallCount() = stub.evictedCallCount()
+
     override fun verifiedCalls() =
         stub
             .verifiedCalls()
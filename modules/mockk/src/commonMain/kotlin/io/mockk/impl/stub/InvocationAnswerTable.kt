@@ -0,0 +1,129 @@
+package io.mockk.impl.stub
+
+import io.mockk.Answer
+import io.mockk.EqMatcher
+import io.mockk.InternalPlatformDsl
+import io.mockk.Invocation
+import io.mockk.InvocationMatcher
+import io.mockk.MethodDescription
+import io.mockk.NullCheckMatcher
+import io.mockk.core.ValueClassSupport.boxedValue
+import io.mockk.impl.InternalPlatform
+import io.mockk.impl.Ref
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+internal class InvocationAnswer(
+    val matcher: InvocationMatcher,
+    val answer: Answer<*>,
+    val order: Long,
+) {
+    val usageCount = LongAdder()
+}
+
+/**
+ * Answers of one stub indexed by [MethodDescription].
+ *
+ * Each method keeps an immutable list of answers that is replaced on write,
+ * so lookups are lock-free and only scan answers registered for the called method.
+ *
+ * Answers whose matchers check only equality to value-like arguments (or nulls) are compiled
+ * into a hash index keyed by the expected arguments instead of the list.
+ * The list is then scanned only for answers added after the indexed hit,
+ * so the last added answer still wins.
+ */
+internal class InvocationAnswerTable {
+    private val byMethod = ConcurrentHashMap<MethodDescription, MethodAnswers>()
+    private val ordered = InternalPlatform.synchronizedMutableList<InvocationAnswer>()
+    private var nextOrder = 0L
+
+    fun add(
+        matcher: InvocationMatcher,
+        answer: Answer<*>,
+    ) {
+        InternalPlatform.synchronized(ordered) {
+            val invocationAnswer = InvocationAnswer(matcher, answer, nextOrder++)
+            val method = matcher.method
+            val methodAnswers = byMethod[method] ?: MethodAnswers(listOf(), ConcurrentHashMap())
+            val key = matcher.equalityKey()
+            if (key != null) {
+                methodAnswers.indexed[key] = invocationAnswer
+                byMethod[method] = methodAnswers
+            } else {
+                byMethod[method] = MethodAnswers(methodAnswers.scanned + invocationAnswer, methodAnswers.indexed)
+            }
+            ordered.add(invocationAnswer)
+        }
+    }
+
+    fun findLast(invocation: Invocation): InvocationAnswer? {
+        val methodAnswers = byMethod[invocation.method] ?: return null
+        val indexed =
+            if (methodAnswers.indexed.isEmpty()) {
+                null
+            } else {
+                methodAnswers.indexed[invocation.equalityKey()]
+            }
+
+        val scanned = methodAnswers.scanned
+        for (idx in scanned.indices.reversed()) {
+            val answer = scanned[idx]
+            if (indexed != null && answer.order < indexed.order) {
+                break
+            }
+            if (answer.matcher.match(invocation)) {
+                return answer
+            }
+        }
+        return indexed
+    }
+
+    fun all(): List<InvocationAnswer> =
+        InternalPlatform.synchronized(ordered) {
+            ordered.toList()
+        }
+
+    fun clear() {
+        InternalPlatform.synchronized(ordered) {
+            byMethod.clear()
+            ordered.clear()
+        }
+    }
+
+    private class MethodAnswers(
+        val scanned: List<InvocationAnswer>,
+        val indexed: MutableMap<EqualityKey, InvocationAnswer>,
+    )
+
+    private data class EqualityKey(
+        val self: Ref,
+        val args: List<Any?>,
+    )
+
+    private companion object {
+        fun InvocationMatcher.equalityKey(): EqualityKey? {
+            if (allAny) return null
+
+            val values =
+                args.map {
+                    when {
+                        it is NullCheckMatcher<*> && !it.inverse -> null
+                        it is EqMatcher<*> && !it.ref && !it.inverse && isIndexable(it.value) -> it.value
+                        else -> return null
+                    }
+                }
+
+            return EqualityKey(InternalPlatform.ref(self), values)
+        }
+
+        fun Invocation.equalityKey() =
+            EqualityKey(
+                InternalPlatform.ref(self),
+                args.map { arg -> arg?.let { InternalPlatformDsl.unboxChar(it).boxedValue } },
+            )
+
+        // only values with stable equality are indexed, anything else is matched in order
+        fun isIndexable(value: Any?) =
+            value != null && (InternalPlatform.isPassedByValue(value::class) || value is Enum<*>)
+    }
+}
@@ -3,6 +3,7 @@
 import io.mockk.Answer
 import io.mockk.BackingFieldValueProvider
 import io.mockk.Call
+import io.mockk.CallRetention
 import io.mockk.EqMatcher
 import io.mockk.InternalPlatformDsl
 import io.mockk.Invocation
@@ -10,8 +11,10 @@
 import io.mockk.MethodDescription
 import io.mockk.MockKException
 import io.mockk.MockKGateway
+import io.mockk.MockKSettings
 import io.mockk.NullCheckMatcher
 import io.mockk.StackElement
+import io.mockk.StackTraceCapture
 import io.mockk.impl.InternalPlatform
 import io.mockk.impl.InternalPlatform.customComputeIfAbsent
 import io.mockk.impl.log.Logger
@@ -25,16 +28,21 @@ open class MockKStub(
     val gatewayAccess: StubGatewayAccess,
     val recordPrivateCalls: Boolean,
     val mockType: MockType,
+    val stackTraceCapture: StackTraceCapture = MockKSettings.stackTraceCapture,
+    override val recordCalls: Boolean = true,
+    override val callRetention: CallRetention = MockKSettings.callRetention,
 ) : Stub {
     val log = gatewayAccess.safeToString(Logger<MockKStub>())
 
+    private val stackTraceSamplingInterval = MockKSettings.stackTraceSamplingInterval.toLong()
+    private val stackTraceMaxDepth = MockKSettings.stackTraceMaxDepth
+    private val stackTraceSamplingCounter = InternalPlatformDsl.counter()
+
     override val threadId: Long = Thread.currentThread().id
 
-    private val answers = InternalPlatform.synchronizedMutableList<InvocationAnswer>()
+    private val answers = InvocationAnswerTable()
     private val childs = InternalPlatform.synchronizedMutableMap<InvocationMatcher, Any>()
-    private val recordedCalls = InternalPlatform.synchronizedMutableList<Invocation>()
-    private val recordedCallsByMethod =
-        InternalPlatform.synchronizedMutableMap<MethodDescription, MutableList<Invocation>>()
+    private val recordedCalls = RecordedCallLog(callRetention)
     private val exclusions = InternalPlatform.synchronizedMutableList<InvocationMatcher>()
     private val verifiedCalls = InternalPlatform.synchronizedMutableList<Invocation>()
 
@@ -46,17 +54,15 @@ override fun addAnswer(
         matcher: InvocationMatcher,
         answer: Answer<*>,
     ) {
-        val invocationAnswer = InvocationAnswer(matcher, answer, 0)
-        answers.add(invocationAnswer)
+        answers.add(matcher, answer)
     }
 
     override fun answer(invocation: Invocation): Any? {
         val invocationAndMatcher =
-            InternalPlatform.synchronized(answers) {
-                answers
-                    .findLast { it.matcher.match(invocation) }
-                    ?.also { it.usageCount++ }
-            } ?: return defaultAnswer(invocation)
+            answers
+                .findLast(invocation)
+                ?.also { it.usageCount.increment() }
+                ?: return defaultAnswer(invocation)
 
         return with(invocationAndMatcher) {
             matcher.captureAnswer(invocation)
@@ -102,7 +108,7 @@ protected open fun defaultAnswer(invocation: Invocation): Any? =
                     childMockK(invocation.allEqMatcher(), invocation.method.returnType)
                 }
             } else {
-                val configuredAnswers = answers.map { it.matcher.toString() }.joinToString(separator = "\n") { it }
+                val configuredAnswers = answers.all().map { it.matcher.toString() }.joinToString(separator = "\n") { it }
                 throw MockKException(
                     "no answer found for ${gatewayAccess.safeToString.exec { invocation.toString() }}" +
                         " among the configured answers: ($configuredAnswers)",
@@ -121,6 +127,7 @@ private fun shouldRelax(invocation: Invocation) =
     override fun recordCall(invocation: Invocation) {
         val record =
             when {
+                !recordCalls -> false
                 checkExcluded(invocation) -> {
                     log.debug { "Call excluded: $invocation" }
                     false
@@ -129,15 +136,7 @@ override fun recordCall(invocation: Invocation) {
                 else -> !invocation.method.privateCall
             }
 
-        if (record) {
-            recordedCalls.add(invocation)
-
-            InternalPlatform.synchronized(recordedCallsByMethod) {
-                recordedCallsByMethod
-                    .getOrPut(invocation.method) { mutableListOf() }
-                    .add(invocation)
-            }
-
+        if (record && recordedCalls.add(invocation)) {
             gatewayAccess.stubRepository.notifyCallRecorded(this)
         }
     }
@@ -147,17 +146,13 @@ private fun checkExcluded(invocation: Invocation) =
             exclusions.any { it.match(invocation) }
         }
 
-    override fun allRecordedCalls(): List<Invocation> {
-        InternalPlatform.synchronized(recordedCalls) {
-            return recordedCalls.toList()
-        }
-    }
+    override fun allRecordedCalls(): List<Invocation> = recordedCalls.all()
 
-    override fun allRecordedCalls(method: MethodDescription): List<Invocation> {
-        InternalPlatform.synchronized(recordedCallsByMethod) {
-            return recordedCallsByMethod[method]?.toList() ?: listOf()
-        }
-    }
+    override fun allRecordedCalls(method: MethodDescription): List<Invocation> = recordedCalls.all(method)
+
+    override fun recordedCallsAfter(position: Long): Pair<List<Invocation>, Long> = recordedCalls.allAfter(position)
+
+    override fun evictedCallCount(): Long = recordedCalls.evictedCount()
 
     override fun excludeRecordedCalls(
         params: MockKGateway.ExclusionParameters,
@@ -166,32 +161,18 @@ override fun excludeRecordedCalls(
         exclusions.add(matcher)
 
         if (params.current) {
-            InternalPlatform.synchronized(recordedCalls) {
-                val callsToExclude =
-                    recordedCalls
-                        .filter(matcher::match)
-
-                if (callsToExclude.isNotEmpty()) {
-                    log.debug {
-                        "Calls excluded: " + callsToExclude.joinToString(", ")
-                    }
-                }
+            val callsToExclude = recordedCalls.removeAll(matcher::match)
 
-                callsToExclude
-                    .forEach { recordedCalls.remove(it) }
-
-                InternalPlatform.synchronized(recordedCallsByMethod) {
-                    recordedCallsByMethod[matcher.method]?.apply {
-                        filter(matcher::match)
-                            .forEach { remove(it) }
-                    }
+            if (callsToExclude.isNotEmpty()) {
+                log.debug {
+                    "Calls excluded: " + callsToExclude.joinToString(", ")
                 }
+            }
 
-                InternalPlatform.synchronized(verifiedCalls) {
-                    verifiedCalls
-                        .filter(matcher::match)
-                        .forEach { verifiedCalls.remove(it) }
-                }
+            InternalPlatform.synchronized(verifiedCalls) {
+                verifiedCalls
+                    .filter(matcher::match)
+                    .forEach { verifiedCalls.remove(it) }
             }
         }
     }
@@ -207,9 +188,7 @@ override fun verifiedCalls(): List<Invocation> {
     }
 
     override fun matcherUsages(): Map<InvocationMatcher, Int> =
-        InternalPlatform.synchronized(answers) {
-            answers.associate { it.matcher to it.usageCount }
-        }
+        answers.all().associate { it.matcher to it.usageCount.sum().toInt() }
 
     override fun toStr() = "${type.simpleName}($name)"
 
@@ -226,6 +205,9 @@ override fun childMockK(
                         moreInterfaces = arrayOf(),
                         relaxed = relaxed,
                         relaxUnitFun = relaxUnitFun,
+                        stackTraceCapture = stackTraceCapture,
+                        recordCalls = recordCalls,
+                        callRetention = callRetention,
                     )
                 }
             }
@@ -277,7 +259,7 @@ fun search(
             return this.drop(idx + 1)
         }
 
-        val stackTraceHolder = InternalPlatform.captureStackTrace()
+        val stackTraceHolder = if (recordCalls) captureStackTrace() else noStackTrace
 
         val invocation =
             Invocation(
@@ -292,18 +274,31 @@ fun search(
                 },
                 originalPlusToString,
                 fieldValueProvider,
+                invocationSequence.increment() + 1,
             )
 
         return gatewayAccess.callRecorder().call(invocation)
     }
 
+    private fun captureStackTrace(): () -> List<StackElement> =
+        when (stackTraceCapture) {
+            StackTraceCapture.FULL -> InternalPlatform.captureStackTrace()
+            StackTraceCapture.LAZY_WALKER -> InternalPlatform.walkStackTrace(stackTraceMaxDepth)
+            StackTraceCapture.SAMPLED ->
+                if (stackTraceSamplingCounter.increment() % stackTraceSamplingInterval == 0L) {
+                    InternalPlatform.captureStackTrace()
+                } else {
+                    noStackTrace
+                }
+            StackTraceCapture.NONE -> noStackTrace
+        }
+
     override fun clear(options: MockKGateway.ClearOptions) {
         if (options.answers) {
             this.answers.clear()
         }
         if (options.recordedCalls) {
             this.recordedCalls.clear()
-            this.recordedCallsByMethod.clear()
         }
         if (options.childMocks) {
             this.childs.clear()
@@ -318,13 +313,11 @@ override fun clear(options: MockKGateway.ClearOptions) {
 
     companion object {
         val childOfRegex = Regex("child(\\^(\\d+))? of (.+)")
-    }
 
-    private data class InvocationAnswer(
-        val matcher: InvocationMatcher,
-        val answer: Answer<*>,
-        var usageCount: Int,
-    )
+        private val noStackTrace: () -> List<StackElement> = { listOf() }
+
+        private val invocationSequence = InternalPlatformDsl.counter()
+    }
 
     protected fun Invocation.allEqMatcher() =
         InvocationMatcher(
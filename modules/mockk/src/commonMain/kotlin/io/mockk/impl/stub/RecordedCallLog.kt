@@ -0,0 +1,138 @@
+package io.mockk.impl.stub
+
+import io.mockk.CallRetention
+import io.mockk.Invocation
+import io.mockk.MethodDescription
+import io.mockk.impl.InternalPlatform
+
+/**
+ * Recorded calls of one stub, ordered by [Invocation.sequence] and grouped by [MethodDescription].
+ *
+ * Calls not kept according to [retention] are dropped and counted,
+ * so verification can tell that the history is incomplete.
+ *
+ * Calls racing on several threads may arrive slightly out of sequence, so they are inserted in place.
+ * Kept calls are also numbered in the order they are added, and readers fetch only the calls
+ * added after the last position they've seen, which includes calls arriving with a lower sequence.
+ */
+internal class RecordedCallLog(
+    private val retention: CallRetention,
+) {
+    private val calls = ArrayDeque<Invocation>()
+    private val appended = ArrayDeque<Appended>()
+    private var lastPosition = 0L
+    private val callsByMethod = mutableMapOf<MethodDescription, ArrayDeque<Invocation>>()
+    private var sampleCounter = 0L
+    private var evicted = 0L
+
+    private val windowNanos = (retention as? CallRetention.TimeWindow)?.millis?.times(NANOS_IN_MILLI)
+
+    /**
+     * @return true if the call was kept
+     */
+    fun add(invocation: Invocation): Boolean =
+        InternalPlatform.synchronized(this) {
+            if (retention is CallRetention.Sampled && sampleCounter++ % retention.interval != 0L) {
+                evicted++
+                false
+            } else {
+                calls.insertBySequence(invocation)
+                callsByMethod.getOrPut(invocation.method) { ArrayDeque() }.insertBySequence(invocation)
+                appended.add(Appended(++lastPosition, invocation))
+
+                if (retention is CallRetention.Last) {
+                    while (calls.size > retention.size) {
+                        evictFirst()
+                    }
+                }
+                evictOutdated()
+                true
+            }
+        }
+
+    fun all(): List<Invocation> =
+        InternalPlatform.synchronized(this) {
+            evictOutdated()
+            calls.toList()
+        }
+
+    fun all(method: MethodDescription): List<Invocation> =
+        InternalPlatform.synchronized(this) {
+            evictOutdated()
+            callsByMethod[method]?.toList() ?: listOf()
+        }
+
+    /**
+     * @return calls added after [position] in the order they were added, and the position of the last added call
+     */
+    fun allAfter(position: Long): Pair<List<Invocation>, Long> =
+        InternalPlatform.synchronized(this) {
+            evictOutdated()
+            val idx = appended.binarySearch { it.position.compareTo(position) }
+            val from = if (idx >= 0) idx + 1 else -idx - 1
+            Pair(appended.subList(from, appended.size).map { it.invocation }, lastPosition)
+        }
+
+    fun removeAll(predicate: (Invocation) -> Boolean): List<Invocation> =
+        InternalPlatform.synchronized(this) {
+            val removed = calls.filter(predicate)
+            if (removed.isNotEmpty()) {
+                calls.removeAll(predicate)
+                appended.removeAll { predicate(it.invocation) }
+                callsByMethod.values.forEach { it.removeAll(predicate) }
+            }
+            removed
+        }
+
+    fun evictedCount(): Long = InternalPlatform.synchronized(this) { evicted }
+
+    fun clear() {
+        InternalPlatform.synchronized(this) {
+            calls.clear()
+            appended.clear()
+            callsByMethod.clear()
+            sampleCounter = 0
+            evicted = 0
+        }
+    }
+
+    private fun evictOutdated() {
+        val windowNanos = windowNanos ?: return
+        val oldest = InternalPlatform.time() - windowNanos
+        while (calls.isNotEmpty() && calls.first().timestamp < oldest) {
+            evictFirst()
+        }
+    }
+
+    private fun evictFirst() {
+        val invocation = calls.removeFirst()
+        // usually the first added call too, unless calls arrived out of sequence
+        appended.removeAt(appended.indexOfFirst { it.invocation === invocation })
+        val methodCalls = callsByMethod[invocation.method]
+        if (methodCalls != null) {
+            if (methodCalls.firstOrNull() === invocation) {
+                methodCalls.removeFirst()
+            } else {
+                methodCalls.remove(invocation)
+            }
+        }
+        evicted++
+    }
+
+    private fun ArrayDeque<Invocation>.insertBySequence(invocation: Invocation) {
+        var idx = size
+        while (idx > 0 && this[idx - 1].sequence > invocation.sequence) {
+            idx--
+        }
+        add(idx, invocation)
+    }
+
+    private class Appended(
+        val position: Long,
+        val invocation: Invocation,
+    )
+
+    private companion object {
+        const val NANOS_IN_MILLI = 1_000_000L
+    }
+}
@@ -1,6 +1,9 @@
 package io.mockk.impl.stub
 
+import io.mockk.CallRetention
 import io.mockk.Invocation
+import io.mockk.MockKSettings
+import io.mockk.StackTraceCapture
 import kotlin.reflect.KClass
 
 class SpyKStub<T : Any>(
@@ -9,6 +12,20 @@ class SpyKStub<T : Any>(
     gatewayAccess: StubGatewayAccess,
     recordPrivateCalls: Boolean,
     mockType: MockType,
-) : MockKStub(cls, name, false, false, gatewayAccess, recordPrivateCalls, mockType) {
+    stackTraceCapture: StackTraceCapture = MockKSettings.stackTraceCapture,
+    recordCalls: Boolean = true,
+    callRetention: CallRetention = MockKSettings.callRetention,
+) : MockKStub(
+        cls,
+        name,
+        false,
+        false,
+        gatewayAccess,
+        recordPrivateCalls,
+        mockType,
+        stackTraceCapture,
+        recordCalls,
+        callRetention,
+    ) {
     override fun defaultAnswer(invocation: Invocation): Any? = invocation.originalCall()
 }
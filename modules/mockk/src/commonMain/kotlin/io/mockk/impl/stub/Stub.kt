@@ -2,6 +2,7 @@
 
 import io.mockk.Answer
 import io.mockk.BackingFieldValueProvider
+import io.mockk.CallRetention
 import io.mockk.Invocation
 import io.mockk.InvocationMatcher
 import io.mockk.MethodDescription
@@ -17,6 +18,13 @@ interface Stub : Disposable {
 
     val threadId: Long
 
+    /**
+     * False for stub-only mocks, which answer calls without keeping any call history
+     */
+    val recordCalls: Boolean
+
+    val callRetention: CallRetention
+
     fun addAnswer(
         matcher: InvocationMatcher,
         answer: Answer<*>,
@@ -35,6 +43,17 @@ fun allRecordedCalls(): List<Invocation>
 
     fun allRecordedCalls(method: MethodDescription): List<Invocation>
 
+    /**
+     * Calls recorded after [position] together with the position of the last recorded call.
+     * Positions grow in the order calls are recorded, position 0 is the start of the recording.
+     */
+    fun recordedCallsAfter(position: Long): Pair<List<Invocation>, Long>
+
+    /**
+     * Number of calls dropped from the recorded calls by [callRetention]
+     */
+    fun evictedCallCount(): Long
+
     fun excludeRecordedCalls(
         params: ExclusionParameters,
         matcher: InvocationMatcher,
@@ -3,79 +3,130 @@
 import io.mockk.Invocation
 import io.mockk.RecordedCall
 
+/**
+ * Finds the longest common subsequence of calls and verification matchers.
+ *
+ * When all matchers are present in order, the match is found by scanning calls backwards
+ * and pairing each matcher with the latest fitting call, which stops as soon as all matchers are paired.
+ * Otherwise, the LCS table is computed row by row in primitive arrays,
+ * keeping only a bitmap of backtracking directions.
+ */
 class LCSMatchingAlgo(
     val allCalls: List<Invocation>,
     private val verificationSequence: List<RecordedCall>,
     private val captureBlocks: MutableList<() -> Unit>? = null,
 ) {
-    private val nEdits = Array(allCalls.size) { Array(verificationSequence.size) { 0 } }
-    private val path = Array(allCalls.size) { Array(verificationSequence.size) { '?' } }
-
     val verifiedMatchers = mutableListOf<RecordedCall>()
     val verifiedCalls = mutableListOf<Invocation>()
 
     fun lcs(): Boolean {
-        fun maxOf(
-            a: Pair<Int, Char>,
-            b: Pair<Int, Char>,
-        ) = if (a.first > b.first) a else b
+        if (allCalls.isEmpty() || verificationSequence.isEmpty()) return false
+
+        if (matchAllBackwards()) return true
+
+        return fullLcs()
+    }
+
+    /**
+     * Produces the same pairs as backtracking the full table would, given all matchers are present.
+     */
+    private fun matchAllBackwards(): Boolean {
+        var matcherIdx = verificationSequence.lastIndex
+        val callIndices = IntArray(verificationSequence.size)
+
+        for (callIdx in allCalls.indices.reversed()) {
+            if (verificationSequence[matcherIdx].matcher.match(allCalls[callIdx])) {
+                callIndices[matcherIdx] = callIdx
+                if (--matcherIdx < 0) {
+                    for (idx in verificationSequence.indices.reversed()) {
+                        addVerified(callIndices[idx], idx)
+                    }
+                    return true
+                }
+            }
+        }
+        return false
+    }
+
+    private fun fullLcs(): Boolean {
+        val nMatchers = verificationSequence.size
+        val matchers = verificationSequence.map { it.matcher }
+        val matched = BitMatrix(allCalls.size, nMatchers)
+        val skipCall = BitMatrix(allCalls.size, nMatchers)
+
+        var prevRow = IntArray(nMatchers)
+        var row = IntArray(nMatchers)
 
         for ((callIdx, call) in allCalls.withIndex()) {
-            for ((matcherIdx, matcher) in verificationSequence.map { it.matcher }.withIndex()) {
-                val result =
-                    if (matcher.match(call)) {
-                        if (matcherIdx == 0 || callIdx == 0) {
-                            Pair(1, '=')
-                        } else {
-                            Pair(nEdits[callIdx - 1][matcherIdx - 1] + 1, '=')
-                        }
+            for (matcherIdx in 0 until nMatchers) {
+                if (matchers[matcherIdx].match(call)) {
+                    row[matcherIdx] = if (matcherIdx == 0) 1 else prevRow[matcherIdx - 1] + 1
+                    matched[callIdx, matcherIdx] = true
+                } else {
+                    val up = prevRow[matcherIdx]
+                    val left = if (matcherIdx == 0) 0 else row[matcherIdx - 1]
+                    if (up > left) {
+                        row[matcherIdx] = up
+                        skipCall[callIdx, matcherIdx] = true
                     } else {
-                        maxOf(
-                            if (callIdx == 0) {
-                                Pair(0, '^')
-                            } else {
-                                Pair(nEdits[callIdx - 1][matcherIdx], '^')
-                            },
-                            if (matcherIdx == 0) {
-                                Pair(0, '<')
-                            } else {
-                                Pair(nEdits[callIdx][matcherIdx - 1], '<')
-                            },
-                        )
+                        row[matcherIdx] = left
                     }
-
-                nEdits[callIdx][matcherIdx] = result.first
-                path[callIdx][matcherIdx] = result.second
+                }
             }
+
+            val swap = prevRow
+            prevRow = row
+            row = swap
         }
 
-        backTrackCalls(allCalls.size - 1, verificationSequence.size - 1)
+        var callIdx = allCalls.lastIndex
+        var matcherIdx = nMatchers - 1
+        while (callIdx >= 0 && matcherIdx >= 0) {
+            when {
+                matched[callIdx, matcherIdx] -> addVerified(callIdx--, matcherIdx--)
+                skipCall[callIdx, matcherIdx] -> callIdx--
+                else -> matcherIdx--
+            }
+        }
 
         // match only if all matchers present
-        return nEdits.getOrNull(allCalls.size - 1)?.getOrNull(verificationSequence.size - 1) == verificationSequence.size
+        return prevRow[nMatchers - 1] == nMatchers
     }
 
-    private tailrec fun backTrackCalls(
+    private fun addVerified(
         callIdx: Int,
         matcherIdx: Int,
     ) {
-        if (callIdx < 0 || matcherIdx < 0) return
-
-        when (path[callIdx][matcherIdx]) {
-            '=' -> {
-                val matcher = verificationSequence[matcherIdx].matcher
-                val invocation = allCalls[callIdx]
-                captureBlocks?.add { matcher.captureAnswer(invocation) }
-                verifiedCalls.add(invocation)
-                verifiedMatchers.add(verificationSequence[matcherIdx])
-                backTrackCalls(callIdx - 1, matcherIdx - 1)
-            }
-            '^' -> {
-                backTrackCalls(callIdx - 1, matcherIdx)
-            }
-            '<' -> {
-                backTrackCalls(callIdx, matcherIdx - 1)
-            }
+        val matcher = verificationSequence[matcherIdx].matcher
+        val invocation = allCalls[callIdx]
+        captureBlocks?.add { matcher.captureAnswer(invocation) }
+        verifiedCalls.add(invocation)
+        verifiedMatchers.add(verificationSequence[matcherIdx])
+    }
+
+    private class BitMatrix(
+        rows: Int,
+        private val columns: Int,
+    ) {
+        private val words = LongArray(((rows.toLong() * columns + 63) / 64).toInt())
+
+        operator fun get(
+            row: Int,
+            column: Int,
+        ): Boolean {
+            val bit = row.toLong() * columns + column
+            return words[(bit ushr 6).toInt()] and (1L shl (bit and 63).toInt()) != 0L
+        }
+
+        operator fun set(
+            row: Int,
+            column: Int,
+            value: Boolean,
+        ) {
+            val bit = row.toLong() * columns + column
+            val idx = (bit ushr 6).toInt()
+            val mask = 1L shl (bit and 63).toInt()
+            words[idx] = if (value) words[idx] or mask else words[idx] and mask.inv()
         }
     }
 }
@@ -1,12 +1,21 @@
 package io.mockk.impl.verify
 
+import io.mockk.Invocation
 import io.mockk.MockKGateway.CallVerifier
 import io.mockk.MockKGateway.VerificationParameters
 import io.mockk.MockKGateway.VerificationResult
+import io.mockk.Ordering
 import io.mockk.RecordedCall
 import io.mockk.impl.InternalPlatform
+import io.mockk.impl.stub.Stub
 import io.mockk.impl.stub.StubRepository
 
+/**
+ * Repeats verification until it passes or the timeout expires.
+ *
+ * Between passes only the calls recorded since the previous pass are examined,
+ * and the verifier chain is run again only once these calls can change the outcome.
+ */
 class TimeoutVerifier(
     val stubRepo: StubRepository,
     val verifierChain: CallVerifier,
@@ -19,18 +28,23 @@ override fun verify(
 
         val session = stubRepo.openRecordCallAwaitSession(stubs, params.timeout)
         try {
+            val progress = IncrementalProgress(stubs, verificationSequence, params)
+            progress.update()
+
             while (true) {
                 val result = verifierChain.verify(verificationSequence, params)
                 if (params.inverse != result.matches) {
                     return result // passed
                 }
-                if (!session.wait()) {
-                    val lastCheck = verifierChain.verify(verificationSequence, params)
-                    if (params.inverse != lastCheck.matches) {
-                        return lastCheck // passed
+                do {
+                    if (!session.wait()) {
+                        val lastCheck = verifierChain.verify(verificationSequence, params)
+                        if (params.inverse != lastCheck.matches) {
+                            return lastCheck // passed
+                        }
+                        return lastCheck.addTimeoutToMessage(params.timeout)
                     }
-                    return lastCheck.addTimeoutToMessage(params.timeout)
-                }
+                } while (!progress.update())
             }
         } finally {
             session.close()
@@ -46,6 +60,74 @@ private fun List<RecordedCall>.allStubs(stubRepo: StubRepository) =
             .map { it.value }
             .map { stubRepo.stubFor(it) }
             .distinct()
+
+    /**
+     * Keeps a cursor per stub and tracks how far the new calls get the verification sequence.
+     *
+     * The final outcome is always decided by the verifier chain, this only tells when to run it again.
+     */
+    private class IncrementalProgress(
+        stubs: List<Stub>,
+        verificationSequence: List<RecordedCall>,
+        private val params: VerificationParameters,
+    ) {
+        private val cursors = stubs.map { Cursor(it) }
+        private val matchers = verificationSequence.map { it.matcher }
+        private val matchCounts = IntArray(matchers.size)
+        private var nextOrderedMatcher = 0
+
+        /**
+         * @return true if calls recorded since the last update may change the verification outcome
+         */
+        fun update(): Boolean {
+            val newCalls = cursors.flatMap { it.advance() }
+            if (newCalls.isEmpty()) return false
+            if (params.inverse) return true
+
+            var relevant = false
+            when (params.ordering) {
+                Ordering.ORDERED ->
+                    for (call in newCalls.sortedBy { it.sequence }) {
+                        if (matchers.any { it.match(call) }) {
+                            relevant = true
+                        }
+                        if (nextOrderedMatcher < matchers.size && matchers[nextOrderedMatcher].match(call)) {
+                            nextOrderedMatcher++
+                        }
+                    }
+                else ->
+                    for (call in newCalls) {
+                        for ((idx, matcher) in matchers.withIndex()) {
+                            if (matcher.match(call)) {
+                                matchCounts[idx]++
+                                relevant = true
+                            }
+                        }
+                    }
+            }
+
+            return relevant && sequenceCanPass()
+        }
+
+        private fun sequenceCanPass() =
+            when (params.ordering) {
+                Ordering.UNORDERED, Ordering.ALL -> matchCounts.all { it >= params.min }
+                Ordering.ORDERED -> nextOrderedMatcher == matchers.size
+                Ordering.SEQUENCE -> true
+            }
+    }
+
+    private class Cursor(
+        private val stub: Stub,
+    ) {
+        private var position = 0L
+
+        fun advance(): List<Invocation> {
+            val (calls, lastPosition) = stub.recordedCallsAfter(position)
+            position = lastPosition
+            return calls
+        }
+    }
 }
 
 private fun VerificationResult.addTimeoutToMessage(timeout: Long) =
@@ -6,7 +6,9 @@
 import io.mockk.StackElement
 import io.mockk.StackTracesAlignment
 import io.mockk.impl.InternalPlatform
+import io.mockk.impl.stub.Stub
 import io.mockk.impl.stub.StubRepository
+import java.util.PriorityQueue
 
 object VerificationHelpers {
     fun formatCalls(
@@ -31,6 +33,10 @@ fun stackTrace(
         prefix: Int,
         stackTrace: List<StackElement>,
     ): String {
+        if (stackTrace.isEmpty()) {
+            return "<stack trace not captured, see stackTraceCapture setting>"
+        }
+
         @Suppress("DEPRECATION_ERROR")
         fun columnSize(block: StackElement.() -> String) = stackTrace.map(block).map { it.length }.maxOfOrNull { it } ?: 0
 
@@ -80,8 +86,45 @@ fun List<RecordedCall>.allInvocations(stubRepo: StubRepository) =
             .map { InternalPlatform.ref(it.matcher.self) }
             .distinct()
             .map { it.value }
-            .flatMap { stubRepo.stubFor(it).allRecordedCalls() }
-            .sortedBy { it.timestamp }
+            .map { stubRepo.stubFor(it).allRecordedCalls() }
+            .mergeBySequence()
+
+    /**
+     * Merges lists of calls, each already ordered by [Invocation.sequence], into one ordered list.
+     */
+    internal fun List<List<Invocation>>.mergeBySequence(): List<Invocation> {
+        val lists = filter { it.isNotEmpty() }
+        if (lists.size <= 1) return lists.firstOrNull() ?: listOf()
+
+        val positions = IntArray(lists.size)
+        fun head(listIdx: Int) = lists[listIdx][positions[listIdx]].sequence
+
+        val heads = PriorityQueue<Int>(lists.size) { a, b -> head(a).compareTo(head(b)) }
+        heads.addAll(lists.indices)
+
+        val result = ArrayList<Invocation>(lists.sumOf { it.size })
+        while (heads.isNotEmpty()) {
+            val listIdx = heads.poll()
+            result.add(lists[listIdx][positions[listIdx]++])
+            if (positions[listIdx] < lists[listIdx].size) {
+                heads.add(listIdx)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Lists [stubs] that dropped calls because of their call retention, or returns an empty string if none did.
+     */
+    fun evictedCallsNote(stubs: List<Stub>): String {
+        val evictingStubs = stubs.filter { it.evictedCallCount() > 0 }
+        if (evictingStubs.isEmpty()) return ""
+
+        return "\n\nRecorded calls are incomplete:\n" +
+            evictingStubs.joinToString("\n") {
+                "${it.toStr()}: ${it.evictedCallCount()} call(s) evicted by callRetention = ${it.callRetention}"
+            }
+    }
 
     fun reportCalls(
         matchers: List<RecordedCall>,
@@ -57,9 +57,44 @@ fun testNull() {
         mock.functionNull(null)
     }
 
+    @Test
+    fun lastAddedAnswerWinsWhenManyAnswersAreConfiguredForTheSameMethod() {
+        val mock: DummyClass = mockk()
+
+        repeat(100) { i ->
+            every { mock.function(i) } returns i * 2
+        }
+        every { mock.function(any()) } returns -1
+        every { mock.function(7) } returns 7
+        every { mock.other(any()) } returns 5
+
+        assertEquals(7, mock.function(7))
+        assertEquals(-1, mock.function(8))
+        assertEquals(5, mock.other(8))
+    }
+
+    @Test
+    fun equalityStubsKeepLastAddedWinsPrecedenceWithOtherMatchers() {
+        val mock: DummyClass = mockk()
+
+        repeat(1000) { i ->
+            every { mock.function(i) } returns i + 1
+        }
+        every { mock.function(more(500)) } returns -1
+        every { mock.function(700) } returns 700
+        every { mock.functionNull(null) } returns 0
+
+        assertEquals(11, mock.function(10))
+        assertEquals(-1, mock.function(600))
+        assertEquals(700, mock.function(700))
+        assertEquals(0, mock.functionNull(null))
+    }
+
     class DummyClass {
         fun function(a: Int) = a
 
+        fun other(a: Int) = a
+
         fun functionNull(a: Any?) = 2
     }
 }
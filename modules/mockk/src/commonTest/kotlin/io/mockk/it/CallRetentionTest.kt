@@ -0,0 +1,127 @@
+package io.mockk.it
+
+import io.mockk.CallRetention
+import io.mockk.Called
+import io.mockk.callRetentionValueOf
+import io.mockk.confirmVerified
+import io.mockk.every
+import io.mockk.excludeRecords
+import io.mockk.mockk
+import io.mockk.verify
+import io.mockk.verifyAll
+import io.mockk.verifyOrder
+import io.mockk.verifySequence
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class CallRetentionTest {
+    class MockCls {
+        fun op(a: Int) = a
+    }
+
+    @Test
+    fun lastKeepsOnlyLatestCalls() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Last(2))
+        every { mock.op(any()) } returns 0
+
+        repeat(5) { mock.op(it) }
+
+        verifyOrder {
+            mock.op(3)
+            mock.op(4)
+        }
+        assertEvictionReported { verify(exactly = 0) { mock.op(0) } }
+    }
+
+    @Test
+    fun sequenceOverEvictedCallsFails() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Last(2))
+        every { mock.op(any()) } returns 0
+
+        repeat(5) { mock.op(it) }
+
+        assertEvictionReported {
+            verifySequence {
+                mock.op(3)
+                mock.op(4)
+            }
+        }
+        assertEvictionReported { verifyAll { mock.op(any()) } }
+        assertEvictionReported { verify(inverse = true) { mock.op(0) } }
+    }
+
+    @Test
+    fun confirmVerifiedFailsWhenCallsWereEvicted() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Last(1))
+        every { mock.op(any()) } returns 0
+
+        mock.op(1)
+        mock.op(2)
+        verify { mock.op(2) }
+
+        assertEvictionReported { confirmVerified(mock) }
+    }
+
+    @Test
+    fun failedVerificationReportsEvictedCalls() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Last(2))
+        every { mock.op(any()) } returns 0
+
+        repeat(5) { mock.op(it) }
+
+        val message =
+            assertFailsWith<AssertionError> {
+                verify { mock.op(0) }
+            }.message!!
+
+        assertTrue(message.contains("3 call(s) evicted by callRetention = last:2"), message)
+    }
+
+    @Test
+    fun sampledKeepsEveryNthCall() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Sampled(3))
+        every { mock.op(any()) } returns 0
+
+        repeat(7) { mock.op(it) }
+
+        verifyOrder {
+            mock.op(0)
+            mock.op(3)
+            mock.op(6)
+        }
+    }
+
+    @Test
+    fun wasNotCalledFailsWhenCallsWereEvicted() {
+        val mock = mockk<MockCls>(callRetention = CallRetention.Sampled(2))
+        every { mock.op(any()) } returns 0
+
+        mock.op(1)
+        mock.op(2)
+        excludeRecords { mock.op(1) }
+
+        val message =
+            assertFailsWith<AssertionError> {
+                verify { mock wasNot Called }
+            }.message!!
+
+        assertTrue(message.contains("1 call(s) evicted"), message)
+    }
+
+    private fun assertEvictionReported(block: () -> Unit) {
+        val message = assertFailsWith<AssertionError> { block() }.message!!
+        assertTrue(message.contains("call(s) evicted"), message)
+    }
+
+    @Test
+    fun retentionIsParsedFromSettings() {
+        assertEquals(CallRetention.Unbounded, callRetentionValueOf("unbounded"))
+        assertEquals(CallRetention.Last(10), callRetentionValueOf("last:10"))
+        assertEquals(CallRetention.TimeWindow(500), callRetentionValueOf("window:500"))
+        assertEquals(CallRetention.Sampled(3), callRetentionValueOf("Sampled: 3"))
+        assertEquals(CallRetention.Unbounded, callRetentionValueOf("last:0"))
+        assertEquals(CallRetention.Unbounded, callRetentionValueOf("unknown"))
+    }
+}
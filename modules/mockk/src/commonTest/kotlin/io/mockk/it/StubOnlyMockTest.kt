@@ -0,0 +1,90 @@
+package io.mockk.it
+
+import io.mockk.Called
+import io.mockk.MockKException
+import io.mockk.checkUnnecessaryStub
+import io.mockk.confirmVerified
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.spyk
+import io.mockk.verify
+import kotlin.test.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class StubOnlyMockTest {
+    open class MockCls {
+        open fun op(a: Int) = a + 1
+    }
+
+    @Test
+    fun stubOnlyMockAnswers() {
+        val mock = mockk<MockCls>(recordCalls = false)
+        every { mock.op(1) } returns 5
+
+        assertEquals(5, mock.op(1))
+    }
+
+    @Test
+    fun stubOnlySpyCallsOriginal() {
+        val spy = spyk(MockCls(), recordCalls = false)
+
+        assertEquals(3, spy.op(2))
+    }
+
+    @Test
+    fun verifyingStubOnlyMockFails() {
+        val mock = mockk<MockCls>(recordCalls = false)
+        every { mock.op(any()) } returns 5
+
+        mock.op(1)
+
+        val ex = assertFailsWith<MockKException> { verify { mock.op(1) } }
+        assertTrue(ex.message!!.contains("recordCalls = false"), ex.message)
+    }
+
+    @Test
+    fun wasNotCalledOnStubOnlyMockFails() {
+        val mock = mockk<MockCls>(recordCalls = false)
+        every { mock.op(any()) } returns 5
+
+        mock.op(1)
+
+        val ex = assertFailsWith<MockKException> { verify { mock wasNot Called } }
+        assertTrue(ex.message!!.contains("recordCalls = false"), ex.message)
+    }
+
+    @Test
+    fun confirmVerifiedOnStubOnlyMockFails() {
+        val mock = mockk<MockCls>(recordCalls = false)
+        every { mock.op(any()) } returns 5
+
+        mock.op(1)
+
+        val ex = assertFailsWith<MockKException> { confirmVerified(mock) }
+        assertTrue(ex.message!!.contains("recordCalls = false"), ex.message)
+    }
+
+    @Test
+    fun checkUnnecessaryStubOnStubOnlyMockFails() {
+        val mock = mockk<MockCls>(recordCalls = false)
+        every { mock.op(any()) } returns 5
+
+        val ex = assertFailsWith<MockKException> { checkUnnecessaryStub(mock) }
+        assertTrue(ex.message!!.contains("recordCalls = false"), ex.message)
+    }
+
+    @Test
+    fun recordingMocksCanBeVerifiedAlongside() {
+        val stubOnly = mockk<MockCls>(recordCalls = false)
+        val recording = mockk<MockCls>()
+        every { stubOnly.op(any()) } returns 5
+        every { recording.op(any()) } returns 6
+
+        stubOnly.op(1)
+        recording.op(1)
+
+        verify { recording.op(1) }
+    }
+}
@@ -84,6 +84,24 @@ fun checkVerifyOrder3() {
         }
     }
 
+    @Test
+    fun checkVerifyOrderCapturesLatestMatchingCalls() {
+        every { mock.op(any()) } returns 0
+        val slot = mutableListOf<Int>()
+
+        mock.op(1)
+        mock.op(2)
+        mock.op(3)
+        mock.op(4)
+
+        verifyOrder {
+            mock.op(capture(slot))
+            mock.op(capture(slot))
+        }
+
+        assertEquals(listOf(4, 3), slot)
+    }
+
     @Test
     fun checkVerifyOrderInverse1() {
         doCalls()
@@ -157,6 +175,33 @@ fun verifySequenceInverse3() {
         }
     }
 
+    @Test
+    fun verifySequenceOfInterleavedCallsOnSeveralMocks() {
+        val otherMock = mockk<MockCls>()
+        val thirdMock = mockk<MockCls>()
+        every { mock.op(any()) } returns 0
+        every { otherMock.op(any()) } returns 0
+        every { thirdMock.op(any()) } returns 0
+
+        repeat(3) {
+            mock.op(it)
+            otherMock.op(it)
+            thirdMock.op(it)
+        }
+
+        verifySequence {
+            repeat(3) {
+                mock.op(it)
+                otherMock.op(it)
+                thirdMock.op(it)
+            }
+        }
+        verifyOrder(inverse = true) {
+            thirdMock.op(0)
+            mock.op(0)
+        }
+    }
+
     @Test
     fun verifyCount() {
         doCalls()
@@ -75,6 +75,8 @@ actual fun <T : Any> copyFields(
     // TODO
     actual fun captureStackTrace() = { listOf<StackElement>() }
 
+    actual fun walkStackTrace(maxDepth: Int) = { listOf<StackElement>() }
+
     actual fun weakRef(value: Any) =
         object : WeakRef {
             override val value: Any?
@@ -23,6 +23,21 @@ actual inline fun <T> useImpl(block: () -> T): T {
         checkNotNull(javaMethod) { "$this is not a top-level extension function" }
             .declaringClass.kotlin
 
+/**
+ * Creates the mocks built in [block] with one class retransformation at its end, instead of one per mock.
+ *
+ * Inline mocked classes get their advice only when the block ends,
+ * so the mocks should be stubbed and used after it.
+ * Other threads mocking the same classes wait until the block ends, mocks of other classes are not held up.
+ * If another thread is transforming one of these classes at the same time,
+ * the classes collected so far may be retransformed before the block ends.
+ * A failed retransformation is thrown from this function, and the mocks it was meant for are not applied.
+ */
+fun <T> mockkBatch(block: () -> T): T =
+    MockK.useImpl {
+        JvmMockKGateway.defaultImplementation.batchTransformations(block)
+    }
+
 /**
  * Builds a static mock. Any mocks of this function's declaring class are cancelled before it's mocked
  */
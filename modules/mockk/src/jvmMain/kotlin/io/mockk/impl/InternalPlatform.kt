@@ -5,9 +5,11 @@
 import io.mockk.StackElement
 import io.mockk.core.ValueClassSupport.boxedClass
 import io.mockk.core.ValueClassSupport.boxedValue
+import io.mockk.core.ValueClassSupport.isValueClass
 import io.mockk.declaringKotlinFile
 import io.mockk.impl.platform.CommonIdentityHashMapOf
 import io.mockk.impl.platform.CommonRef
+import io.mockk.impl.platform.JvmStackWalker
 import io.mockk.impl.platform.JvmWeakConcurrentMap
 import java.lang.ref.WeakReference
 import java.lang.reflect.Modifier
@@ -62,18 +64,10 @@ actual fun <T> synchronizedMutableList(): MutableList<T> = synchronizedList(muta
 
     actual fun <K, V> synchronizedMutableMap(): MutableMap<K, V> = synchronizedMap(hashMapOf())
 
-    // UnsupportedOperationException is thrown for some internal classes generated by the Kotlin compiler
-    private fun isValueClass(clazz: KClass<*>) =
-        try {
-            clazz.isValue
-        } catch (_: UnsupportedOperationException) {
-            false
-        }
-
     actual fun packRef(arg: Any?): Any? =
         when {
             arg == null -> null
-            isValueClass(arg::class) -> packRef(arg.boxedValue) ?: ref(arg)
+            arg::class.isValueClass -> packRef(arg.boxedValue) ?: ref(arg)
             isPassedByValue(arg::class.boxedClass) -> arg.boxedValue
             else -> ref(arg)
         }
@@ -157,6 +151,14 @@ actual fun captureStackTrace(): () -> List<StackElement> {
         }
     }
 
+    actual fun walkStackTrace(maxDepth: Int): () -> List<StackElement> {
+        if (JvmStackWalker.isAvailable) {
+            return JvmStackWalker.capture(maxDepth)
+        }
+        val stackTrace = captureStackTrace()
+        return { stackTrace().take(maxDepth) }
+    }
+
     actual fun weakRef(value: Any): WeakRef {
         val weakRef = WeakReference(value)
         return object : WeakRef {
@@ -200,9 +200,14 @@ override fun initialValue(): CommonCallRecorder =
     override val stubber: Stubber = EveryBlockEvaluator(callRecorderTL::get, ::JvmAutoHinter)
     override val verifier: Verifier = VerifyBlockEvaluator(callRecorderTL::get, stubRepo, ::JvmAutoHinter)
     override val excluder: Excluder = ExcludeBlockEvaluator(callRecorderTL::get, stubRepo, ::JvmAutoHinter)
-    override val mockInitializer = JvmMockInitializer(this)
+    override val mockInitializer = JvmMockInitializer(this) { batchTransformations(it) }
     override val verificationAcknowledger = CommonVerificationAcknowledger(stubRepo, safeToString)
 
+    /**
+     * Runs [block] retransforming the classes of mocks created in it in one pass at its end.
+     */
+    fun <T> batchTransformations(block: () -> T): T = agentFactory.batchTransformations(block)
+
     companion object {
         private var log: Logger
 
@@ -1,89 +1,89 @@
 package io.mockk.impl
 
 import io.mockk.impl.MultiNotifier.Session
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.TimeUnit
-import java.util.concurrent.locks.Condition
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.locks.ReentrantLock
 import kotlin.concurrent.withLock
 
+/**
+ * Wakes up sessions waiting for notifications on particular keys.
+ *
+ * Sessions are registered per key, so a notification wakes only the sessions waiting on that key.
+ * While no session is open, [notify] is a single volatile read.
+ */
 class JvmMultiNotifier : MultiNotifier {
-    val lock = ReentrantLock()
-    val condition: Condition = lock.newCondition()
-
-    val conditionMet = mutableSetOf<Ref>()
-    val counters = mutableMapOf<Ref, Int>()
+    private val openSessions = AtomicInteger()
+    private val sessionsByKey = ConcurrentHashMap<Ref, MutableSet<SessionImpl>>()
 
     override fun openSession(
         keys: List<Any>,
         timeout: Long,
     ): Session {
-        val start = time()
-        lock.withLock {
-            changeCounters(keys, 1)
+        val session = SessionImpl(time(), timeout, keys.map { InternalPlatform.ref(it) }.distinct())
+
+        for (ref in session.refs) {
+            sessionsByKey.compute(ref) { _, sessions ->
+                (sessions ?: ConcurrentHashMap.newKeySet()).apply { add(session) }
+            }
         }
+        openSessions.incrementAndGet()
 
-        return SessionImpl(start, timeout, keys)
+        return session
     }
 
-    inner class SessionImpl(
+    private inner class SessionImpl(
         private val start: Long,
         private val timeout: Long,
-        private val keys: List<Any>,
+        val refs: List<Ref>,
     ) : Session {
+        private val lock = ReentrantLock()
+        private val condition = lock.newCondition()
+        private var notified = false
+
+        fun signal() {
+            lock.withLock {
+                notified = true
+                condition.signal()
+            }
+        }
+
         override fun wait(): Boolean {
-            var ret = false
             lock.withLock {
                 while (true) {
                     val passed = time() - start
                     if (passed >= timeout) {
-                        break
+                        return false
                     }
-                    if (checkAnyConditionsMet(keys)) {
-                        ret = true
-                        break
-                    }
-                    if (!condition.await(timeout - passed, TimeUnit.MILLISECONDS)) {
-                        break
+                    if (notified) {
+                        notified = false
+                        return true
                     }
+                    condition.await(timeout - passed, TimeUnit.MILLISECONDS)
                 }
             }
-            return ret
         }
 
         override fun close() {
-            lock.withLock {
-                changeCounters(keys, -1)
+            openSessions.decrementAndGet()
+
+            for (ref in refs) {
+                sessionsByKey.computeIfPresent(ref) { _, sessions ->
+                    sessions.remove(this)
+                    if (sessions.isEmpty()) null else sessions
+                }
             }
         }
     }
 
-    private fun checkAnyConditionsMet(keys: List<Any>) = keys.any { InternalPlatform.ref(it) in conditionMet }
-
     private fun time() = System.currentTimeMillis()
 
-    private fun changeCounters(
-        keys: List<Any>,
-        delta: Int,
-    ) {
-        keys.forEach {
-            val ref = InternalPlatform.ref(it)
-            val value = counters.getOrElse(ref) { 0 } + delta
-            if (value == 0) {
-                conditionMet.remove(ref)
-                counters.remove(ref)
-            } else {
-                counters[ref] = value
-            }
-        }
-    }
-
     override fun notify(key: Any) {
-        lock.withLock {
-            val ref = InternalPlatform.ref(key)
-            if (ref in counters) {
-                conditionMet.add(ref)
-            }
-            condition.signalAll()
+        if (openSessions.get() == 0) {
+            return
         }
+
+        sessionsByKey[InternalPlatform.ref(key)]?.forEach { it.signal() }
     }
 }
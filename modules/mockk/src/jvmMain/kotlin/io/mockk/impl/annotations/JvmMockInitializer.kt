@@ -21,7 +21,10 @@
 
 class JvmMockInitializer(
     val gateway: MockKGateway,
+    private val batchTransformations: (() -> Unit) -> Unit,
 ) : MockKGateway.MockInitializer {
+    constructor(gateway: MockKGateway) : this(gateway, { it() })
+
     override fun initAnnotatedMocks(
         targets: List<Any>,
         overrideRecordPrivateCalls: Boolean,
@@ -48,21 +51,25 @@ fun initMock(
         useDependencyOrder: Boolean,
     ) {
         val cls = target::class
-        for (property in cls.memberProperties) {
-            assignMockK(
-                property as KProperty1<Any, Any>,
-                target,
-                relaxUnitFun,
-                relaxed,
-            )
-            assignRelaxedMockK(property, target)
 
-            if (!isAnnotatedWith<InjectMockKs>(property)) {
-                assignSpyK(
-                    property,
+        // Mocks aren't called until injection, so their classes can be transformed in one pass
+        batchTransformations {
+            for (property in cls.memberProperties) {
+                assignMockK(
+                    property as KProperty1<Any, Any>,
                     target,
-                    overrideRecordPrivateCalls,
+                    relaxUnitFun,
+                    relaxed,
                 )
+                assignRelaxedMockK(property, target)
+
+                if (!isAnnotatedWith<InjectMockKs>(property)) {
+                    assignSpyK(
+                        property,
+                        target,
+                        overrideRecordPrivateCalls,
+                    )
+                }
             }
         }
 
@@ -266,6 +273,7 @@ private fun createSpyK(
             moreInterfaces(property),
             spyAnnotation.recordPrivateCalls ||
                 overrideRecordPrivateCalls,
+            recordCalls = spyAnnotation.recordCalls,
         )
 
     private fun assignRelaxedMockK(
@@ -303,6 +311,7 @@ private fun assignMockK(
                 relaxUnitFun =
                     annotation.relaxUnitFun ||
                         relaxUnitFun,
+                recordCalls = annotation.recordCalls,
             )
         }
     }
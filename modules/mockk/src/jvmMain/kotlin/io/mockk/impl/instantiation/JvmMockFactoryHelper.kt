@@ -9,10 +9,13 @@
 import io.mockk.impl.InternalPlatform
 import io.mockk.impl.stub.Stub
 import io.mockk.proxy.MockKInvocationHandler
+import java.lang.reflect.Field
 import java.lang.reflect.InvocationTargetException
 import java.lang.reflect.Method
 import java.lang.reflect.Modifier
+import java.util.Optional
 import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.coroutines.Continuation
 import kotlin.reflect.KClass
 import kotlin.reflect.KMutableProperty
@@ -33,22 +36,89 @@ override fun invocation(
                 originalCall: Callable<*>?,
                 args: Array<Any?>,
             ) = stdFunctions(self, method!!, args) {
-                if (method.isKotlinInline()) {
+                val plan = method.invocationPlan()
+                if (plan.isKotlinInline) {
                     throw MockKException("Mocking Kotlin inline functions is not supported")
                 }
 
                 stub.handleInvocation(
                     self,
-                    method.toDescription(),
+                    plan.description,
                     {
                         handleOriginalCall(originalCall, method)
                     },
                     args,
-                    findBackingField(self, method),
+                    backingFieldValueProvider(self, method),
                 )
             }
         }
 
+    /**
+     * Everything Kotlin reflection tells about a method that is needed to handle its calls.
+     *
+     * Built once per method, as Kotlin reflection lookups are too slow to repeat on every call.
+     * Plans are kept in a map keyed by method, which lives in a [ClassValue] of the declaring class,
+     * so the map and its methods are freed together with that class.
+     */
+    private class InvocationPlan(
+        val description: MethodDescription,
+        val isKotlinInline: Boolean,
+    )
+
+    private data class BackingField(
+        val name: String,
+        val field: Field,
+    )
+
+    private val invocationPlans =
+        object : ClassValue<ConcurrentHashMap<Method, InvocationPlan>>() {
+            override fun computeValue(type: Class<*>) = ConcurrentHashMap<Method, InvocationPlan>()
+        }
+
+    // Backing fields depend on the class of the mock, so these are resolved on first use per class
+    private val backingFields =
+        object : ClassValue<ConcurrentHashMap<Method, Optional<BackingField>>>() {
+            override fun computeValue(type: Class<*>) = ConcurrentHashMap<Method, Optional<BackingField>>()
+        }
+
+    private fun Method.invocationPlan(): InvocationPlan =
+        invocationPlans
+            .get(declaringClass)
+            .getOrPut(this) { InvocationPlan(toDescription(), isKotlinInline()) }
+
+    private fun backingFieldValueProvider(
+        self: Any,
+        method: Method,
+    ): BackingFieldValueProvider =
+        {
+            backingField(self, method)?.let { (name, field) ->
+                BackingFieldValue(
+                    name,
+                    {
+                        InternalPlatformDsl.makeAccessible(field)
+                        field.get(self)
+                    },
+                    {
+                        InternalPlatformDsl.makeAccessible(field)
+                        field.set(self, it)
+                    },
+                )
+            }
+        }
+
+    private fun backingField(
+        self: Any,
+        method: Method,
+    ): BackingField? =
+        backingFields
+            .get(self.javaClass)
+            .getOrPut(method) {
+                val property = findBackingField(self::class, method)
+                Optional.ofNullable(
+                    property?.javaField?.let { BackingField(property.name, it) },
+                )
+            }.orElse(null)
+
     private fun findBackingField(
         clazz: KClass<*>,
         method: Method,
@@ -72,27 +142,6 @@ private fun findBackingField(
             }
         }.getOrNull()
 
-    private fun findBackingField(
-        self: Any,
-        method: Method,
-    ): BackingFieldValueProvider =
-        {
-            val property = findBackingField(self::class, method)
-            property?.javaField?.let { field ->
-                BackingFieldValue(
-                    property.name,
-                    {
-                        InternalPlatformDsl.makeAccessible(field)
-                        field.get(self)
-                    },
-                    {
-                        InternalPlatformDsl.makeAccessible(field)
-                        field.set(self, it)
-                    },
-                )
-            }
-        }
-
     private inline fun stdFunctions(
         self: Any,
         method: Method,
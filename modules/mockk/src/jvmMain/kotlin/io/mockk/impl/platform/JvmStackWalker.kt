@@ -0,0 +1,61 @@
+package io.mockk.impl.platform
+
+import io.mockk.StackElement
+import java.util.function.Function
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+/**
+ * Captures a bounded number of frames with `java.lang.StackWalker`.
+ *
+ * Accessed reflectively, as MockK targets Java 8. Frames are converted to [StackElement]s
+ * only when the returned supplier is invoked.
+ */
+internal object JvmStackWalker {
+    private val api =
+        try {
+            StackWalkerApi()
+        } catch (_: ReflectiveOperationException) {
+            null
+        }
+
+    val isAvailable: Boolean
+        get() = api != null
+
+    fun capture(maxDepth: Int): () -> List<StackElement> {
+        val api = api ?: throw UnsupportedOperationException("StackWalker is not available")
+
+        val limit =
+            Function<Stream<Any>, List<Any>> {
+                it.limit(maxDepth.toLong()).collect(Collectors.toList())
+            }
+
+        @Suppress("UNCHECKED_CAST")
+        val frames = api.walk.invoke(api.walker, limit) as List<Any>
+
+        return {
+            frames.map {
+                StackElement(
+                    api.getClassName.invoke(it) as String? ?: "-",
+                    api.getFileName.invoke(it) as String? ?: "-",
+                    api.getMethodName.invoke(it) as String? ?: "-",
+                    api.getLineNumber.invoke(it) as Int,
+                    api.isNativeMethod.invoke(it) as Boolean,
+                )
+            }
+        }
+    }
+
+    private class StackWalkerApi {
+        private val walkerClass = Class.forName("java.lang.StackWalker")
+        private val frameClass = Class.forName("java.lang.StackWalker\$StackFrame")
+
+        val walker: Any = walkerClass.getMethod("getInstance").invoke(null)
+        val walk = walkerClass.getMethod("walk", Function::class.java)
+        val getClassName = frameClass.getMethod("getClassName")
+        val getFileName = frameClass.getMethod("getFileName")
+        val getMethodName = frameClass.getMethod("getMethodName")
+        val getLineNumber = frameClass.getMethod("getLineNumber")
+        val isNativeMethod = frameClass.getMethod("isNativeMethod")
+    }
+}
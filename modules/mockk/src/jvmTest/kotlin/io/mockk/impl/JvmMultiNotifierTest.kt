@@ -0,0 +1,54 @@
+package io.mockk.impl
+
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+class JvmMultiNotifierTest {
+    private val notifier = JvmMultiNotifier()
+    private val key = Any()
+    private val otherKey = Any()
+
+    @Test
+    fun notifyWithoutSessionsDoesNothing() {
+        notifier.notify(key)
+    }
+
+    @Test
+    fun notifyWakesSessionWaitingOnKey() {
+        val session = notifier.openSession(listOf(key), 5_000)
+        try {
+            thread { notifier.notify(key) }
+
+            assertTrue(session.wait())
+        } finally {
+            session.close()
+        }
+    }
+
+    @Test
+    fun notifyOnOtherKeyDoesNotWakeSession() {
+        val session = notifier.openSession(listOf(key), 100)
+        try {
+            notifier.notify(otherKey)
+
+            assertFalse(session.wait())
+        } finally {
+            session.close()
+        }
+    }
+
+    @Test
+    fun notificationIsConsumedByWait() {
+        val session = notifier.openSession(listOf(key), 100)
+        try {
+            notifier.notify(key)
+
+            assertTrue(session.wait())
+            assertFalse(session.wait())
+        } finally {
+            session.close()
+        }
+    }
+}
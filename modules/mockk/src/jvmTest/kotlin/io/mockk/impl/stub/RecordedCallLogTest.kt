@@ -0,0 +1,72 @@
+package io.mockk.impl.stub
+
+import io.mockk.CallRetention
+import io.mockk.Invocation
+import io.mockk.MethodDescription
+import java.util.concurrent.CountDownLatch
+import kotlin.concurrent.thread
+import kotlin.test.Test
+import kotlin.test.assertEquals
+
+class RecordedCallLogTest {
+    private val method =
+        MethodDescription("op", Int::class, false, false, false, false, false, Any::class, listOf(), -1, false)
+
+    private fun call(sequence: Long) =
+        Invocation(this, this, method, listOf(sequence), System.nanoTime(), { listOf() }, { null }, { null }, sequence)
+
+    @Test
+    fun callsAreOrderedBySequence() {
+        val log = RecordedCallLog(CallRetention.Unbounded)
+
+        log.add(call(2))
+        log.add(call(1))
+        log.add(call(3))
+
+        assertEquals(listOf(1L, 2L, 3L), log.all().map { it.sequence })
+    }
+
+    @Test
+    fun callRecordedLateIsReturnedAfterLastPosition() {
+        val log = RecordedCallLog(CallRetention.Unbounded)
+        val sequenceTaken = CountDownLatch(1)
+        val laterCallPolled = CountDownLatch(1)
+
+        // thread A takes sequence 5, thread B takes 6 and is recorded first
+        val callA =
+            thread {
+                val invocation = call(5)
+                sequenceTaken.countDown()
+                laterCallPolled.await()
+                log.add(invocation)
+            }
+        val callB =
+            thread {
+                sequenceTaken.await()
+                log.add(call(6))
+            }
+        callB.join()
+
+        val (first, position) = log.allAfter(0)
+        assertEquals(listOf(6L), first.map { it.sequence })
+        laterCallPolled.countDown()
+        callA.join()
+
+        val (second, lastPosition) = log.allAfter(position)
+        assertEquals(listOf(5L), second.map { it.sequence })
+        assertEquals(listOf<Invocation>(), log.allAfter(lastPosition).first)
+        assertEquals(listOf(5L, 6L), log.all().map { it.sequence })
+    }
+
+    @Test
+    fun evictedCallsAreNotReturnedAfterPosition() {
+        val log = RecordedCallLog(CallRetention.Last(2))
+
+        log.add(call(2))
+        log.add(call(1))
+        log.add(call(3))
+
+        assertEquals(listOf(2L, 3L), log.allAfter(0).first.map { it.sequence })
+        assertEquals(1L, log.evictedCount())
+    }
+}
@@ -0,0 +1,57 @@
+package io.mockk.it
+
+import io.mockk.MockKAnnotations
+import io.mockk.every
+import io.mockk.impl.annotations.MockK
+import io.mockk.mockk
+import io.mockk.mockkBatch
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+
+class MockkBatchTest {
+    @MockK
+    lateinit var first: FinalFirst
+
+    @MockK
+    lateinit var second: FinalSecond
+
+    @Test
+    fun mocksCreatedInBatchCanBeStubbedAfterIt() {
+        val (firstMock, secondMock) =
+            mockkBatch {
+                mockk<FinalFirst>() to mockk<FinalSecond>()
+            }
+
+        every { firstMock.op() } returns 5
+        every { secondMock.op() } returns "mocked"
+
+        assertEquals(5, firstMock.op())
+        assertEquals("mocked", secondMock.op())
+        verify { firstMock.op() }
+    }
+
+    @Test
+    fun annotatedMocksCanBeStubbedAfterInit() {
+        MockKAnnotations.init(this)
+
+        every { first.op() } returns 7
+        every { second.op() } returns "annotated"
+
+        assertEquals(7, first.op())
+        assertEquals("annotated", second.op())
+    }
+
+    @Test
+    fun batchReturnsResultOfBlock() {
+        assertEquals(null, mockkBatch<String?> { null })
+    }
+
+    class FinalFirst {
+        fun op() = 1
+    }
+
+    class FinalSecond {
+        fun op() = "real"
+    }
+}
@@ -0,0 +1,51 @@
+package io.mockk.it
+
+import io.mockk.StackTraceCapture
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verifyOrder
+import kotlin.test.Test
+import kotlin.test.assertFailsWith
+import kotlin.test.assertTrue
+
+class StackTraceCaptureTest {
+    class MockCls {
+        fun op(a: Int) = a
+    }
+
+    private fun failedVerificationMessage(stackTraceCapture: StackTraceCapture): String {
+        val mock = mockk<MockCls>(stackTraceCapture = stackTraceCapture)
+        every { mock.op(any()) } returns 1
+
+        mock.op(1)
+        mock.op(2)
+
+        return assertFailsWith<AssertionError> {
+            verifyOrder {
+                mock.op(2)
+                mock.op(1)
+            }
+        }.message!!
+    }
+
+    @Test
+    fun fullCaptureReportsCallerFrames() {
+        val message = failedVerificationMessage(StackTraceCapture.FULL)
+
+        assertTrue(message.contains("failedVerificationMessage"), message)
+    }
+
+    @Test
+    fun lazyWalkerCaptureReportsCallerFrames() {
+        val message = failedVerificationMessage(StackTraceCapture.LAZY_WALKER)
+
+        assertTrue(message.contains("failedVerificationMessage"), message)
+    }
+
+    @Test
+    fun noCaptureReportsMissingStackTraces() {
+        val message = failedVerificationMessage(StackTraceCapture.NONE)
+
+        assertTrue(message.contains("stack trace not captured"), message)
+    }
+}
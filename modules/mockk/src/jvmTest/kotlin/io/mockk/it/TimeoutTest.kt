@@ -1,5 +1,6 @@
 package io.mockk.it
 
+import io.mockk.Ordering
 import io.mockk.impl.annotations.RelaxedMockK
 import io.mockk.junit5.MockKExtension
 import io.mockk.verify
@@ -103,6 +104,39 @@ fun okIfBothInTime() {
         }
     }
 
+    @Test
+    fun okIfEnoughCallsArriveAmongOtherCalls() {
+        launch {
+            repeat(5) {
+                delay(20)
+                mock2.run()
+                mock1.run()
+            }
+        }
+
+        verify(timeout = 2000, atLeast = 5) {
+            mock1.run()
+        }
+    }
+
+    @Test
+    fun okIfCalledInOrderLater() {
+        launch {
+            delay(100)
+            mock2.run()
+            delay(100)
+            mock1.run()
+            delay(100)
+            mock2.run()
+        }
+
+        verify(ordering = Ordering.ORDERED, timeout = 2000) {
+            mock2.run()
+            mock1.run()
+            mock2.run()
+        }
+    }
+
     @Test
     fun longTimeout() {
         launch {
@@ -0,0 +1,63 @@
+package io.mockk.performance
+
+import io.mockk.mockk
+import io.mockk.unmockkAll
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+import kotlinx.benchmark.TearDown
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+ * Measures calls on objects that are not mocked while a mock exists in every iteration.
+ *
+ * Mocking [PlainClass] transforms `java.lang.Object` as it inherits its `equals`, `hashCode` and `toString`,
+ * so compiled code calling these methods on any object is deoptimized and runs through advice.
+ * [DataClass] overrides all three, so only the class itself is transformed,
+ * and the numbers should match those without a mock.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+open class InlineTransformationBenchmark {
+    @Param("none", "dataClass", "plainClass")
+    var mockedClass: String = "none"
+
+    private val bystander = Bystander()
+    private val otherBystander = Bystander()
+
+    @Setup(Level.Iteration)
+    fun setUp() {
+        when (mockedClass) {
+            "dataClass" -> mockk<DataClass>()
+            "plainClass" -> mockk<PlainClass>()
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    fun tearDown() = unmockkAll()
+
+    @Benchmark
+    fun bystanderEquals(blackhole: Blackhole) {
+        blackhole.consume(bystander == otherBystander)
+    }
+
+    @Benchmark
+    fun bystanderToString(blackhole: Blackhole) {
+        blackhole.consume(bystander.toString())
+    }
+
+    class Bystander
+
+    data class DataClass(
+        val value: String,
+    )
+
+    class PlainClass {
+        fun mockedFun(): String = "Hello, world!"
+    }
+}
@@ -0,0 +1,94 @@
+package io.mockk.performance
+
+import io.mockk.mockkClass
+import kotlinx.benchmark.Param
+import kotlinx.benchmark.Scope
+import kotlinx.benchmark.Setup
+import kotlinx.benchmark.State
+import kotlinx.benchmark.TearDown
+import net.bytebuddy.ByteBuddy
+import net.bytebuddy.description.modifier.Visibility
+import net.bytebuddy.dynamic.loading.ByteArrayClassLoader
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.infra.Blackhole
+import java.lang.management.ManagementFactory
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Measures defining subclass proxies for many distinct mocked types.
+ *
+ * Every iteration generates [TYPES] new interfaces, so no proxy class is cached,
+ * and mocks each of them once. The score is the time per proxied type,
+ * the metaspace used by the iteration is printed when it ends.
+ *
+ * With [proxyDefinition] `lookup` the interfaces are in a regular package,
+ * so on JDK 9+ their proxies are defined next to them through a private lookup.
+ * With `classLoader` they are in a `javax.` package, which rules out the lookup,
+ * so their proxies are defined through a proxy class loader, as on JDK 8.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+open class ProxyDefinitionBenchmark {
+    @Param("lookup", "classLoader")
+    var proxyDefinition: String = "lookup"
+
+    private lateinit var types: List<Class<*>>
+    private var metaspaceBefore = 0L
+
+    @Setup(Level.Iteration)
+    fun setUp() {
+        val basePackage =
+            when (proxyDefinition) {
+                "classLoader" -> "javax.mockk.performance.generated"
+                else -> "io.mockk.performance.generated"
+            }
+        val prefix = "$basePackage.Iteration${iteration.incrementAndGet()}"
+        val byteBuddy = ByteBuddy()
+        val definitions =
+            (0 until TYPES).associate { idx ->
+                val name = "$prefix.Type$idx"
+                name to
+                    byteBuddy
+                        .makeInterface()
+                        .name(name)
+                        .defineMethod("value", String::class.java, Visibility.PUBLIC)
+                        .withoutCode()
+                        .make()
+                        .bytes
+            }
+        val loader = ByteArrayClassLoader(javaClass.classLoader, definitions)
+        types = definitions.keys.map { Class.forName(it, false, loader) }
+
+        System.gc()
+        metaspaceBefore = metaspaceUsed()
+    }
+
+    @TearDown(Level.Iteration)
+    fun tearDown() {
+        println("Metaspace used by ${types.size} proxies: ${(metaspaceUsed() - metaspaceBefore) / 1024} KiB")
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TYPES)
+    fun mockDistinctTypes(blackhole: Blackhole) {
+        for (type in types) {
+            blackhole.consume(mockkClass(type.kotlin))
+        }
+    }
+
+    private fun metaspaceUsed() =
+        ManagementFactory
+            .getMemoryPoolMXBeans()
+            .filter { it.name == "Metaspace" }
+            .sumOf { it.usage.used }
+
+    companion object {
+        const val TYPES = 10_000
+
+        private val iteration = AtomicInteger()
+    }
+}